@@ -0,0 +1,55 @@
+package com.notifyah.common.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+
+/**
+ * Hibernate identifier generator backed by {@link SnowflakeIdGenerator}.
+ * The node ID is read from the Hibernate setting {@value #NODE_ID_SETTING}
+ * (configured through {@code spring.jpa.properties}).
+ *
+ * <p>There is no default: two instances sharing a node ID generate colliding IDs, and the partitioned
+ * notifications table cannot reject them (its primary key is {@code (id, created_at)}), so startup fails
+ * unless every instance is given its own node ID explicitly.
+ */
+public class SnowflakeIdentifierGenerator implements IdentifierGenerator {
+
+    public static final String NODE_ID_SETTING = "notification.id.node-id";
+
+    private final SnowflakeIdGenerator generator;
+
+    public SnowflakeIdentifierGenerator(SnowflakeId config, Member member, CustomIdGeneratorCreationContext context) {
+        Object nodeId = context.getServiceRegistry()
+                .getService(ConfigurationService.class)
+                .getSettings()
+                .get(NODE_ID_SETTING);
+        this.generator = new SnowflakeIdGenerator(parseNodeId(nodeId));
+    }
+
+    static long parseNodeId(Object nodeId) {
+        if (nodeId == null || nodeId.toString().isBlank()) {
+            throw new IllegalStateException(NODE_ID_SETTING + " is not set; give every instance its own node ID (0-"
+                    + SnowflakeIdGenerator.MAX_NODE_ID + "), e.g. via NOTIFICATION_NODE_ID");
+        }
+        long parsed;
+        try {
+            parsed = Long.parseLong(nodeId.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException(NODE_ID_SETTING + " must be a number: " + nodeId, e);
+        }
+        if (parsed < 0 || parsed > SnowflakeIdGenerator.MAX_NODE_ID) {
+            throw new IllegalStateException(NODE_ID_SETTING + " must be between 0 and "
+                    + SnowflakeIdGenerator.MAX_NODE_ID + ": " + parsed);
+        }
+        return parsed;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return generator.nextId();
+    }
+}
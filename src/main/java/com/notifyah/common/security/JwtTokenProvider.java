@@ -2,6 +2,7 @@ package com.notifyah.common.security;
 
 import com.notifyah.user.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -9,11 +10,19 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import jakarta.annotation.PostConstruct;
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -30,8 +39,22 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration:86400000}")
     private long expiration;
 
+    @Value("${jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
     private SecretKey secretKey;
 
+    /**
+     * Parser built once; it is immutable and thread-safe.
+     */
+    private JwtParser jwtParser;
+
+    /**
+     * Tokens whose signature was already verified, keyed by SHA-256 of the token.
+     * Entries are only honoured until the token's own expiration.
+     */
+    private final ConcurrentHashMap<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
     /**
      * Initialize the secret key from the configured secret.
      */
@@ -42,6 +65,79 @@ public class JwtTokenProvider {
         return secretKey;
     }
 
+    @PostConstruct
+    void initParser() {
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(getSecretKey())
+                .build();
+    }
+
+    /**
+     * Verify a token and extract its claims in a single pass.
+     * Repeated calls with the same token are served from a bounded cache of verified tokens
+     * until the token expires, so the signature is checked once per token rather than per request.
+     * 
+     * @param token the JWT token
+     * @return verified claims, or empty if the token is invalid or expired
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        long now = System.currentTimeMillis();
+        String cacheKey = cacheKey(token);
+
+        VerifiedToken cached = verifiedTokens.get(cacheKey);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return Optional.of(cached);
+            }
+            verifiedTokens.remove(cacheKey, cached);
+        }
+
+        VerifiedToken verified;
+        try {
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            verified = new VerifiedToken(
+                    Long.valueOf(claims.getSubject()),
+                    extractRoles(claims),
+                    claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE);
+        } catch (Exception e) {
+            log.debug("Token validation failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+
+        if (verified.expiresAtMillis() != Long.MAX_VALUE) {
+            cacheVerified(cacheKey, verified, now);
+        }
+        return Optional.of(verified);
+    }
+
+    private void cacheVerified(String cacheKey, VerifiedToken verified, long now) {
+        if (verifiedTokens.size() >= cacheMaxEntries) {
+            verifiedTokens.values().removeIf(entry -> entry.isExpired(now));
+            if (verifiedTokens.size() >= cacheMaxEntries) {
+                // Still full of live tokens: skip caching rather than grow unbounded
+                return;
+            }
+        }
+        verifiedTokens.put(cacheKey, verified);
+    }
+
+    private static String cacheKey(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static Set<String> extractRoles(Claims claims) {
+        Object roles = claims.get("roles");
+        if (roles instanceof Collection<?> collection) {
+            return collection.stream().map(String::valueOf).collect(Collectors.toUnmodifiableSet());
+        }
+        return Set.of();
+    }
+
     /**
      * Generate JWT token with basic user information.
      * 
@@ -99,17 +195,12 @@ public class JwtTokenProvider {
      * @throws IllegalArgumentException if token is invalid
      */
     public Long getUserId(String token) {
-        try {
-            Claims claims = Jwts.parser()
-                    .setSigningKey(getSecretKey())
-                    .parseClaimsJws(token)
-                    .getBody();
-            
-            return Long.valueOf(claims.getSubject());
-        } catch (Exception e) {
-            log.warn("Failed to extract userId from token: {}", e.getMessage());
-            throw new IllegalArgumentException("Invalid token");
-        }
+        return verify(token)
+                .map(VerifiedToken::userId)
+                .orElseThrow(() -> {
+                    log.warn("Failed to extract userId from token");
+                    return new IllegalArgumentException("Invalid token");
+                });
     }
 
     /**
@@ -120,10 +211,7 @@ public class JwtTokenProvider {
      */
     public String getUsername(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .setSigningKey(getSecretKey())
-                    .parseClaimsJws(token)
-                    .getBody();
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
             
             return claims.get("username", String.class);
         } catch (Exception e) {
@@ -138,19 +226,10 @@ public class JwtTokenProvider {
      * @param token the JWT token
      * @return roles as Set<String>
      */
-    @SuppressWarnings("unchecked")
     public Set<String> getUserRoles(String token) {
-        try {
-            Claims claims = Jwts.parser()
-                    .setSigningKey(getSecretKey())
-                    .parseClaimsJws(token)
-                    .getBody();
-            
-            return (Set<String>) claims.get("roles");
-        } catch (Exception e) {
-            log.debug("Failed to extract roles from token: {}", e.getMessage());
-            return Set.of();
-        }
+        return verify(token)
+                .map(VerifiedToken::roles)
+                .orElse(Set.of());
     }
 
     /**
@@ -160,15 +239,7 @@ public class JwtTokenProvider {
      * @return true if token is valid
      */
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .setSigningKey(getSecretKey())
-                    .parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            log.debug("Token validation failed: {}", e.getMessage());
-            return false;
-        }
+        return verify(token).isPresent();
     }
 
     /**
@@ -179,10 +250,7 @@ public class JwtTokenProvider {
      */
     public boolean isTokenExpired(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .setSigningKey(getSecretKey())
-                    .parseClaimsJws(token)
-                    .getBody();
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
             
             return claims.getExpiration().before(new Date());
         } catch (Exception e) {
@@ -0,0 +1,18 @@
+package com.notifyah.common.security;
+
+import java.util.Set;
+
+/**
+ * Result of verifying a JWT once: the claims the application needs, plus the expiry
+ * after which the verification must not be reused.
+ *
+ * @param userId the subject user ID
+ * @param roles role names from the "roles" claim (empty for basic tokens)
+ * @param expiresAtMillis expiration time in epoch milliseconds
+ */
+public record VerifiedToken(Long userId, Set<String> roles, long expiresAtMillis) {
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
@@ -3,9 +3,13 @@ package com.notifyah.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.notifyah.notification.TopicNames;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.TopicBuilder;
 
 /**
  * Kafka configuration for the NotiFyah application.
@@ -27,4 +31,65 @@ public class KafkaConfig {
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         return mapper;
     }
-} 
\ No newline at end of file
+
+    /**
+     * The notification event topic of the default lane, keyed by recipient.
+     * Its partition count bounds the listener concurrency across all instances.
+     * 
+     * @return topic definition created on startup by KafkaAdmin if missing
+     */
+    @Bean
+    public NewTopic commentCreatedTopic(@Value("${notification.kafka.partitions:12}") int partitions,
+                                        @Value("${notification.kafka.replication-factor:1}") short replicationFactor) {
+        return TopicBuilder.name(TopicNames.COMMENT_CREATED)
+                .partitions(partitions)
+                .replicas(replicationFactor)
+                .build();
+    }
+
+    /**
+     * Topic of the high-priority lane; few partitions, consumed by its own listener pool.
+     * 
+     * @return topic definition created on startup by KafkaAdmin if missing
+     */
+    @Bean
+    public NewTopic notificationHighTopic(@Value("${notification.lanes.high.partitions:3}") int partitions,
+                                          @Value("${notification.kafka.replication-factor:1}") short replicationFactor) {
+        return TopicBuilder.name(TopicNames.NOTIFICATION_HIGH).partitions(partitions).replicas(replicationFactor).build();
+    }
+
+    /**
+     * Topic of the bulk lane, keyed by recipient like the default lane.
+     * 
+     * @return topic definition created on startup by KafkaAdmin if missing
+     */
+    @Bean
+    public NewTopic notificationBulkTopic(@Value("${notification.lanes.bulk.partitions:12}") int partitions,
+                                          @Value("${notification.kafka.replication-factor:1}") short replicationFactor) {
+        return TopicBuilder.name(TopicNames.NOTIFICATION_BULK).partitions(partitions).replicas(replicationFactor).build();
+    }
+
+    @Bean
+    public NewTopic commentCreatedRetry5sTopic(@Value("${notification.kafka.retry-partitions:3}") int partitions,
+                                               @Value("${notification.kafka.replication-factor:1}") short replicationFactor) {
+        return TopicBuilder.name(TopicNames.COMMENT_CREATED_RETRY_5S).partitions(partitions).replicas(replicationFactor).build();
+    }
+
+    @Bean
+    public NewTopic commentCreatedRetry30sTopic(@Value("${notification.kafka.retry-partitions:3}") int partitions,
+                                                @Value("${notification.kafka.replication-factor:1}") short replicationFactor) {
+        return TopicBuilder.name(TopicNames.COMMENT_CREATED_RETRY_30S).partitions(partitions).replicas(replicationFactor).build();
+    }
+
+    @Bean
+    public NewTopic commentCreatedRetry5mTopic(@Value("${notification.kafka.retry-partitions:3}") int partitions,
+                                               @Value("${notification.kafka.replication-factor:1}") short replicationFactor) {
+        return TopicBuilder.name(TopicNames.COMMENT_CREATED_RETRY_5M).partitions(partitions).replicas(replicationFactor).build();
+    }
+
+    @Bean
+    public NewTopic commentCreatedDeadLetterTopic(@Value("${notification.kafka.retry-partitions:3}") int partitions,
+                                                  @Value("${notification.kafka.replication-factor:1}") short replicationFactor) {
+        return TopicBuilder.name(TopicNames.COMMENT_CREATED_DLT).partitions(partitions).replicas(replicationFactor).build();
+    }
+}
@@ -0,0 +1,200 @@
+package com.notifyah.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notifyah.notification.TopicNames;
+import com.notifyah.notification.codec.NotificationEventDeserializer;
+import com.notifyah.notification.dto.NotificationEvent;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kafka consumer configuration for notification ingestion.
+ * Provides a batch listener container so that one poll becomes one bulk insert,
+ * with separate containers and poll sizes for each {@link com.notifyah.notification.lane.NotificationLane}.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class KafkaConsumerConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${spring.kafka.consumer.auto-offset-reset:earliest}")
+    private String autoOffsetReset;
+
+    @Value("${notification.kafka.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Value("${notification.kafka.partitions:12}")
+    private int partitions;
+
+    /**
+     * Upper bound on the time one listener call may take, including audience fan-outs.
+     */
+    @Value("${notification.kafka.max-poll-interval-ms:900000}")
+    private int maxPollIntervalMillis;
+
+    /**
+     * Consumer threads per instance; 0 means one per available processor.
+     */
+    @Value("${notification.kafka.concurrency:0}")
+    private int concurrency;
+
+    @Value("${notification.lanes.high.partitions:3}")
+    private int highPartitions;
+
+    @Value("${notification.lanes.high.concurrency:2}")
+    private int highConcurrency;
+
+    @Value("${notification.lanes.high.max-poll-records:50}")
+    private int highMaxPollRecords;
+
+    @Value("${notification.lanes.bulk.partitions:12}")
+    private int bulkPartitions;
+
+    @Value("${notification.lanes.bulk.concurrency:0}")
+    private int bulkConcurrency;
+
+    @Value("${notification.lanes.bulk.max-poll-records:1000}")
+    private int bulkMaxPollRecords;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Consumer factory decoding notification events (binary or JSON, see {@link NotificationEventDeserializer}).
+     *
+     * @return notification event consumer factory
+     */
+    @Bean
+    public ConsumerFactory<String, NotificationEvent> batchConsumerFactory() {
+        return consumerFactory(maxPollRecords);
+    }
+
+    private ConsumerFactory<String, NotificationEvent> consumerFactory(int maxPollRecords) {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        // Set explicitly: audience fan-outs run chunk after chunk inside one listener call, and exceeding
+        // the interval would rebalance the group and redeliver the event mid fan-out
+        configProps.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, maxPollIntervalMillis);
+        // Offsets are committed by the container once the whole batch has been persisted
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        return new DefaultKafkaConsumerFactory<>(configProps,
+                new StringDeserializer(), new NotificationEventDeserializer(objectMapper));
+    }
+
+    /**
+     * Listener container factory delivering each poll as a single list.
+     * AckMode.BATCH commits the poll's offsets only after the listener returns normally,
+     * so a failed bulk insert leaves the offsets untouched and the batch is redelivered.
+     *
+     * @return batch listener container factory
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> batchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(batchConsumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(listenerConcurrency(concurrency, partitions));
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        return factory;
+    }
+
+    /**
+     * Batch listener container factory of the high-priority lane.
+     * Small polls keep the time from fetch to push short; its consumers are never paused or resized.
+     *
+     * @return high lane listener container factory
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> highLaneKafkaListenerContainerFactory() {
+        return laneFactory(highMaxPollRecords, listenerConcurrency(highConcurrency, highPartitions));
+    }
+
+    /**
+     * Batch listener container factory of the bulk lane. Large polls favour throughput over latency.
+     *
+     * @return bulk lane listener container factory
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> bulkLaneKafkaListenerContainerFactory() {
+        return laneFactory(bulkMaxPollRecords, listenerConcurrency(bulkConcurrency, bulkPartitions));
+    }
+
+    private ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> laneFactory(int maxPollRecords, int concurrency) {
+        ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory(maxPollRecords));
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        return factory;
+    }
+
+    /**
+     * Listener container factory for the per-record listener, decoding the same way as the batch one.
+     *
+     * @return record listener container factory
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> recordKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(batchConsumerFactory());
+        factory.setConcurrency(listenerConcurrency(concurrency, partitions));
+        return factory;
+    }
+
+    /**
+     * Listener container factory for the retry topics.
+     * Manual acknowledgment lets a listener leave a record that is not due yet uncommitted while its partition is paused.
+     *
+     * @return retry listener container factory
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> retryKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(batchConsumerFactory());
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+
+    /**
+     * Publishes records the deserializer could not read to the dead-letter topic with their original bytes.
+     * The broker picks the partition, as the dead-letter topic need not have as many partitions as the source.
+     *
+     * @param deadLetterKafkaTemplate producer of raw record values
+     * @return recoverer for unreadable records
+     */
+    @Bean
+    public DeadLetterPublishingRecoverer unreadableRecordRecoverer(KafkaTemplate<String, byte[]> deadLetterKafkaTemplate) {
+        return new DeadLetterPublishingRecoverer(deadLetterKafkaTemplate,
+                (record, e) -> new TopicPartition(TopicNames.COMMENT_CREATED_DLT, -1));
+    }
+
+    /**
+     * Each partition is consumed by exactly one thread, so records of one recipient stay in order
+     * while partitions are processed in parallel. Threads beyond the partition count would sit idle.
+     *
+     * @param concurrency requested threads, 0 for one per available processor
+     * @param partitions partitions of the consumed topic
+     * @return consumer threads per listener container
+     */
+    private static int listenerConcurrency(int concurrency, int partitions) {
+        int requested = concurrency > 0 ? concurrency : Runtime.getRuntime().availableProcessors();
+        return Math.max(1, Math.min(requested, partitions));
+    }
+}
@@ -1,10 +1,17 @@
 package com.notifyah.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notifyah.notification.codec.EventFormat;
+import com.notifyah.notification.codec.NotificationEventSerializer;
+import com.notifyah.notification.dto.NotificationEvent;
+import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
@@ -16,11 +23,38 @@ import java.util.Map;
  * Kafka 프로듀서 설정
  */
 @Configuration
+@RequiredArgsConstructor
 public class KafkaProducerConfig {
 
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${notification.kafka.event-format:json}")
+    private String eventFormat;
+
+    @Value("${notification.kafka.producer.max-block-ms:2000}")
+    private long maxBlockMs;
+
+    @Value("${notification.kafka.producer.request-timeout-ms:5000}")
+    private int requestTimeoutMs;
+
+    @Value("${notification.kafka.producer.delivery-timeout-ms:10000}")
+    private int deliveryTimeoutMs;
+
+    @Value("${notification.kafka.bulk-producer.linger-ms:20}")
+    private int bulkLingerMs;
+
+    @Value("${notification.kafka.bulk-producer.batch-size:262144}")
+    private int bulkBatchSize;
+
+    @Value("${notification.kafka.bulk-producer.compression-type:lz4}")
+    private String bulkCompressionType;
+
+    @Value("${notification.kafka.bulk-producer.buffer-memory:67108864}")
+    private long bulkBufferMemory;
+
+    private final ObjectMapper objectMapper;
+
     @Bean
     public ProducerFactory<String, String> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
@@ -34,4 +68,69 @@ public class KafkaProducerConfig {
     public KafkaTemplate<String, String> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
-} 
\ No newline at end of file
+
+    /**
+     * 알림 이벤트 전용 프로듀서 - notification.kafka.event-format (binary | json) 형식으로 직렬화
+     */
+    @Bean
+    public ProducerFactory<String, NotificationEvent> notificationEventProducerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        // 브로커 장애 시 요청 스레드를 오래 붙잡지 않고 빠르게 실패시켜 로컬 스풀로 넘긴다
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+        configProps.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, requestTimeoutMs);
+        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
+        return new DefaultKafkaProducerFactory<>(configProps,
+                new StringSerializer(),
+                new NotificationEventSerializer(EventFormat.valueOf(eventFormat.toUpperCase()), objectMapper));
+    }
+
+    @Bean
+    @Primary
+    public KafkaTemplate<String, NotificationEvent> notificationEventKafkaTemplate() {
+        return new KafkaTemplate<>(notificationEventProducerFactory());
+    }
+
+    /**
+     * 대량 전송용 알림 이벤트 프로듀서 - 처리량 위주 설정
+     * linger/batch로 레코드를 모아 보내고 lz4로 압축하며, 멱등성(idempotence)으로 재전송 중복과 순서 역전을 막는다.
+     */
+    @Bean
+    public ProducerFactory<String, NotificationEvent> bulkNotificationEventProducerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, bulkLingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, bulkBatchSize);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, bulkCompressionType);
+        configProps.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bulkBufferMemory);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        return new DefaultKafkaProducerFactory<>(configProps,
+                new StringSerializer(),
+                new NotificationEventSerializer(EventFormat.valueOf(eventFormat.toUpperCase()), objectMapper));
+    }
+
+    @Bean
+    public KafkaTemplate<String, NotificationEvent> bulkNotificationEventKafkaTemplate() {
+        return new KafkaTemplate<>(bulkNotificationEventProducerFactory());
+    }
+
+    /**
+     * 디코딩할 수 없는 레코드를 원본 바이트 그대로 DLT로 보내는 프로듀서
+     */
+    @Bean
+    public ProducerFactory<String, byte[]> deadLetterProducerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+        configProps.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, requestTimeoutMs);
+        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
+        return new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), new ByteArraySerializer());
+    }
+
+    @Bean
+    public KafkaTemplate<String, byte[]> deadLetterKafkaTemplate() {
+        return new KafkaTemplate<>(deadLetterProducerFactory());
+    }
+}
@@ -0,0 +1,59 @@
+package com.notifyah.config;
+
+import com.notifyah.websocket.NotificationWebSocketHandler;
+import com.notifyah.websocket.cluster.DeliveryBackplane;
+import com.notifyah.websocket.cluster.InMemorySessionLocationRegistry;
+import com.notifyah.websocket.cluster.InProcessDeliveryBackplane;
+import com.notifyah.websocket.cluster.JpaSessionLocationRegistry;
+import com.notifyah.websocket.cluster.KafkaDeliveryBackplane;
+import com.notifyah.websocket.cluster.SessionLocationRegistry;
+import com.notifyah.websocket.repository.SessionLocationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+
+/**
+ * Cross-node WebSocket delivery configuration.
+ * {@code websocket.cluster.backplane} selects the implementation:
+ * none (single instance), in-process (in-memory stand-ins) or kafka (database registry + Kafka routing).
+ */
+@Configuration
+public class WebSocketClusterConfig {
+
+    @Value("${websocket.cluster.node-id}")
+    private String nodeId;
+
+    @Value("${websocket.cluster.location-ttl-ms:30000}")
+    private long locationTtlMillis;
+
+    @Bean
+    @ConditionalOnProperty(name = "websocket.cluster.backplane", havingValue = "kafka")
+    public SessionLocationRegistry jpaSessionLocationRegistry(SessionLocationRepository sessionLocationRepository) {
+        return new JpaSessionLocationRegistry(sessionLocationRepository, Duration.ofMillis(locationTtlMillis));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "websocket.cluster.backplane", havingValue = "kafka")
+    public DeliveryBackplane kafkaDeliveryBackplane(KafkaTemplate<String, String> kafkaTemplate) {
+        return new KafkaDeliveryBackplane(kafkaTemplate);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(SessionLocationRegistry.class)
+    public SessionLocationRegistry inMemorySessionLocationRegistry() {
+        return new InMemorySessionLocationRegistry();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(DeliveryBackplane.class)
+    public DeliveryBackplane inProcessDeliveryBackplane(NotificationWebSocketHandler webSocketHandler) {
+        InProcessDeliveryBackplane backplane = new InProcessDeliveryBackplane();
+        backplane.attach(nodeId, webSocketHandler::sendToUser);
+        return backplane;
+    }
+}
@@ -1,13 +1,13 @@
 package com.notifyah.debug.controller;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.notifyah.notification.TopicNames;
+import com.notifyah.common.exception.ApiException;
 import com.notifyah.notification.dto.NotificationEvent;
+import com.notifyah.notification.lane.NotificationLaneRouter;
+import com.notifyah.notification.service.NotificationEventPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -21,25 +21,28 @@ import java.util.Map;
 @Slf4j
 public class DebugEventController {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final NotificationEventPublisher notificationEventPublisher;
+    private final NotificationLaneRouter laneRouter;
 
     /**
      * 댓글 생성 이벤트를 Kafka로 발행
+     * 인증 없이 호출되는 경로이므로 대상 그룹(audience) 이벤트는 거부한다
      */
     @PostMapping("/comment")
     public ResponseEntity<Map<String, String>> publishCommentEvent(@RequestBody NotificationEvent event) {
+        if (event.isAudienceEvent()) {
+            throw new ApiException("Audience events cannot be published through the debug endpoint",
+                    HttpStatus.FORBIDDEN, "AUDIENCE_NOT_ALLOWED");
+        }
         try {
             log.info("디버그 댓글 이벤트 발행 요청: {}", event);
             
-            // NotificationEvent를 JSON으로 직렬화
-            String jsonMessage = objectMapper.writeValueAsString(event);
-            log.info("Kafka로 발행할 JSON 메시지: {}", jsonMessage);
-            
-            // Kafka 토픽으로 메시지 발행
-            kafkaTemplate.send(TopicNames.COMMENT_CREATED, jsonMessage)
+            // 우선순위 레인 토픽으로 메시지 발행 (수신자 ID를 키로 사용)
+            notificationEventPublisher.submit(event)
                     .whenComplete((result, ex) -> {
-                        if (ex == null) {
+                        if (ex == null && result == null) {
+                            log.info("Kafka를 사용할 수 없어 댓글 이벤트를 로컬 스풀에 저장했습니다.");
+                        } else if (ex == null) {
                             log.info("댓글 이벤트가 성공적으로 Kafka로 발행되었습니다. 토픽: {}, 파티션: {}, 오프셋: {}", 
                                     result.getRecordMetadata().topic(),
                                     result.getRecordMetadata().partition(),
@@ -51,7 +54,7 @@ public class DebugEventController {
             
             Map<String, String> response = Map.of(
                     "status", "PUBLISHED",
-                    "topic", TopicNames.COMMENT_CREATED
+                    "topic", laneRouter.topicOf(event)
             );
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
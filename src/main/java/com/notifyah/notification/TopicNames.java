@@ -7,6 +7,33 @@ public final class TopicNames {
     
     public static final String COMMENT_CREATED = "comment-created";
     
+    /**
+     * 우선순위 레인별 알림 토픽 (기본 레인은 COMMENT_CREATED)
+     */
+    public static final String NOTIFICATION_HIGH = "notification-high";
+    public static final String NOTIFICATION_BULK = "notification-bulk";
+    
+    /**
+     * 처리 실패 이벤트의 단계별 재시도 토픽 (지연 시간 순)
+     */
+    public static final String COMMENT_CREATED_RETRY_5S = "comment-created.retry.5s";
+    public static final String COMMENT_CREATED_RETRY_30S = "comment-created.retry.30s";
+    public static final String COMMENT_CREATED_RETRY_5M = "comment-created.retry.5m";
+    
+    /**
+     * 모든 재시도에 실패한 이벤트가 보관되는 dead-letter 토픽
+     */
+    public static final String COMMENT_CREATED_DLT = "comment-created.dlt";
+    
+    /**
+     * 노드 간 WebSocket 전달 토픽 접두사 (노드마다 "notification-delivery.<nodeId>")
+     */
+    public static final String DELIVERY_PREFIX = "notification-delivery.";
+    
+    public static String deliveryTopic(String nodeId) {
+        return DELIVERY_PREFIX + nodeId;
+    }
+    
     private TopicNames() {
         // 유틸리티 클래스이므로 인스턴스화 방지
     }
@@ -0,0 +1,17 @@
+package com.notifyah.notification.codec;
+
+/**
+ * Wire format producers use for notification events ({@code notification.kafka.event-format}).
+ * Consumers always accept both.
+ */
+public enum EventFormat {
+    /**
+     * {@link NotificationEventCodec} binary format
+     */
+    BINARY,
+
+    /**
+     * Jackson JSON, as written before the binary format existed
+     */
+    JSON
+}
@@ -0,0 +1,258 @@
+package com.notifyah.notification.codec;
+
+import com.notifyah.notification.dto.NotificationEvent;
+import com.notifyah.notification.entity.NotificationType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compact, versioned binary format for {@link NotificationEvent} records on Kafka.
+ *
+ * <p>Layout (version 1):
+ * <pre>
+ * magic(1) version(1) presence-bits(varint)
+ * [event type code(varint), or 0 followed by the type name if it has no code]
+ * [senderId] [targetUserId] [entityId]             zig-zag varints
+ * [content] [redirectUrl] [audienceRole]           varint byte length + UTF-8
+ * [audienceUserIds]                                varint count + zig-zag varint deltas
+ * [eventId]                                        16 bytes, big-endian (added later, hence last)
+ * </pre>
+ * Absent (null) fields cost nothing but their presence bit. The magic byte can never start
+ * a JSON document, so readers tell both formats apart from the first byte.
+ * Decoders ignore trailing bytes, so a later version may append fields.
+ */
+public final class NotificationEventCodec {
+
+    public static final byte MAGIC = (byte) 0xCE;
+    public static final byte VERSION = 1;
+
+    private static final int HAS_EVENT_TYPE = 1;
+    private static final int HAS_SENDER = 1 << 1;
+    private static final int HAS_TARGET = 1 << 2;
+    private static final int HAS_ENTITY = 1 << 3;
+    private static final int HAS_CONTENT = 1 << 4;
+    private static final int HAS_REDIRECT = 1 << 5;
+    private static final int HAS_AUDIENCE_ROLE = 1 << 6;
+    private static final int HAS_AUDIENCE_IDS = 1 << 7;
+    private static final int HAS_EVENT_ID = 1 << 8;
+
+    private NotificationEventCodec() {
+    }
+
+    /**
+     * @param data a serialized record value
+     * @return true if the value is in this binary format (as opposed to JSON)
+     */
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    /**
+     * Encodes an event.
+     * 
+     * @param event the event
+     * @return the encoded bytes
+     */
+    public static byte[] encode(NotificationEvent event) {
+        int flags = 0;
+        if (event.getEventType() != null) flags |= HAS_EVENT_TYPE;
+        if (event.getSenderId() != null) flags |= HAS_SENDER;
+        if (event.getTargetUserId() != null) flags |= HAS_TARGET;
+        if (event.getEntityId() != null) flags |= HAS_ENTITY;
+        if (event.getContent() != null) flags |= HAS_CONTENT;
+        if (event.getRedirectUrl() != null) flags |= HAS_REDIRECT;
+        if (event.getAudienceRole() != null) flags |= HAS_AUDIENCE_ROLE;
+        if (event.getAudienceUserIds() != null) flags |= HAS_AUDIENCE_IDS;
+        if (event.getEventId() != null) flags |= HAS_EVENT_ID;
+
+        Writer out = new Writer(64 + (event.getContent() != null ? event.getContent().length() * 3 : 0));
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        out.writeVarLong(flags);
+
+        if (event.getEventType() != null) {
+            NotificationType type = NotificationType.fromName(event.getEventType());
+            if (type != null) {
+                out.writeVarLong(type.getCode());
+            } else {
+                out.writeVarLong(0);
+                out.writeString(event.getEventType());
+            }
+        }
+        if (event.getSenderId() != null) out.writeZigZag(event.getSenderId());
+        if (event.getTargetUserId() != null) out.writeZigZag(event.getTargetUserId());
+        if (event.getEntityId() != null) out.writeZigZag(event.getEntityId());
+        if (event.getContent() != null) out.writeString(event.getContent());
+        if (event.getRedirectUrl() != null) out.writeString(event.getRedirectUrl());
+        if (event.getAudienceRole() != null) out.writeString(event.getAudienceRole());
+        if (event.getAudienceUserIds() != null) {
+            List<Long> ids = event.getAudienceUserIds();
+            out.writeVarLong(ids.size());
+            long previous = 0;
+            for (Long id : ids) {
+                out.writeZigZag(id - previous);
+                previous = id;
+            }
+        }
+        if (event.getEventId() != null) {
+            out.writeFixedLong(event.getEventId().getMostSignificantBits());
+            out.writeFixedLong(event.getEventId().getLeastSignificantBits());
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes an event.
+     * 
+     * @param data bytes produced by {@link #encode(NotificationEvent)}
+     * @return the event; an event type code unknown to this version decodes to a null event type
+     * @throws IllegalArgumentException if the data is not a supported binary event
+     */
+    public static NotificationEvent decode(byte[] data) {
+        if (!isBinary(data)) {
+            throw new IllegalArgumentException("Not a binary notification event");
+        }
+        if (data.length < 2 || data[1] > VERSION || data[1] < 1) {
+            throw new IllegalArgumentException("Unsupported notification event version: " + (data.length < 2 ? "none" : data[1]));
+        }
+
+        try {
+            Reader in = new Reader(data, 2);
+            int flags = (int) in.readVarLong();
+            NotificationEvent event = new NotificationEvent();
+
+            if ((flags & HAS_EVENT_TYPE) != 0) {
+                int code = (int) in.readVarLong();
+                if (code == 0) {
+                    event.setEventType(in.readString());
+                } else {
+                    NotificationType type = NotificationType.fromCode(code);
+                    event.setEventType(type != null ? type.name() : null);
+                }
+            }
+            if ((flags & HAS_SENDER) != 0) event.setSenderId(in.readZigZag());
+            if ((flags & HAS_TARGET) != 0) event.setTargetUserId(in.readZigZag());
+            if ((flags & HAS_ENTITY) != 0) event.setEntityId(in.readZigZag());
+            if ((flags & HAS_CONTENT) != 0) event.setContent(in.readString());
+            if ((flags & HAS_REDIRECT) != 0) event.setRedirectUrl(in.readString());
+            if ((flags & HAS_AUDIENCE_ROLE) != 0) event.setAudienceRole(in.readString());
+            if ((flags & HAS_AUDIENCE_IDS) != 0) {
+                int count = (int) in.readVarLong();
+                List<Long> ids = new ArrayList<>(Math.min(count, data.length));
+                long previous = 0;
+                for (int i = 0; i < count; i++) {
+                    previous += in.readZigZag();
+                    ids.add(previous);
+                }
+                event.setAudienceUserIds(ids);
+            }
+            if ((flags & HAS_EVENT_ID) != 0) {
+                event.setEventId(new UUID(in.readFixedLong(), in.readFixedLong()));
+            }
+            return event;
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated notification event", e);
+        }
+    }
+
+    private static final class Writer {
+        private byte[] buffer;
+        private int position;
+
+        private Writer(int initialCapacity) {
+            this.buffer = new byte[initialCapacity];
+        }
+
+        private void ensure(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+
+        private void writeByte(byte value) {
+            ensure(1);
+            buffer[position++] = value;
+        }
+
+        private void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeFixedLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        private void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        private Reader(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        private long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = data[position++];
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        private long readFixedLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (data[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        private long readZigZag() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private String readString() {
+            int length = (int) readVarLong();
+            if (length < 0 || length > data.length - position) {
+                throw new IndexOutOfBoundsException("String length " + length + " exceeds record");
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.notifyah.notification.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.notifyah.notification.dto.NotificationEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import java.util.HexFormat;
+
+/**
+ * Kafka deserializer accepting both the binary format and JSON (written by producers not yet migrated).
+ * The format is detected from the first byte of each record.
+ * Unreadable records are returned as null with their raw bytes attached in the
+ * {@link SerializationUtils#VALUE_DESERIALIZER_EXCEPTION_HEADER} header, so listeners can move them to the
+ * dead-letter topic (see {@link com.notifyah.notification.retry.NotificationRetryPublisher#deadLetterIfUnreadable})
+ * without failing the poll. Only the length and a hex prefix of such a payload are logged, as it may be binary.
+ */
+@Slf4j
+public class NotificationEventDeserializer implements Deserializer<NotificationEvent> {
+
+    private static final int LOGGED_PREFIX_BYTES = 32;
+
+    private final ObjectReader jsonReader;
+
+    public NotificationEventDeserializer(ObjectMapper objectMapper) {
+        this.jsonReader = objectMapper.readerFor(NotificationEvent.class);
+    }
+
+    /**
+     * @throws SerializationException if the record is neither a binary nor a JSON notification event
+     */
+    @Override
+    public NotificationEvent deserialize(String topic, byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        try {
+            if (NotificationEventCodec.isBinary(data)) {
+                return NotificationEventCodec.decode(data);
+            }
+            return jsonReader.readValue(data);
+        } catch (Exception e) {
+            log.warn("Unreadable notification event on {} ({} bytes, starting {}): {}", topic, data.length,
+                    HexFormat.of().formatHex(data, 0, Math.min(data.length, LOGGED_PREFIX_BYTES)), e.getMessage());
+            throw new SerializationException("Unreadable notification event on " + topic + " (" + data.length + " bytes)", e);
+        }
+    }
+
+    @Override
+    public NotificationEvent deserialize(String topic, Headers headers, byte[] data) {
+        try {
+            return deserialize(topic, data);
+        } catch (SerializationException e) {
+            SerializationUtils.deserializationException(headers, data, e, false);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.notifyah.notification.codec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.notifyah.notification.dto.NotificationEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka serializer writing {@link NotificationEvent} values in the configured {@link EventFormat}.
+ */
+public class NotificationEventSerializer implements Serializer<NotificationEvent> {
+
+    private final EventFormat format;
+    private final ObjectWriter jsonWriter;
+
+    public NotificationEventSerializer(EventFormat format, ObjectMapper objectMapper) {
+        this.format = format;
+        this.jsonWriter = objectMapper.writerFor(NotificationEvent.class);
+    }
+
+    @Override
+    public byte[] serialize(String topic, NotificationEvent event) {
+        if (event == null) {
+            return null;
+        }
+        if (format == EventFormat.BINARY) {
+            return NotificationEventCodec.encode(event);
+        }
+        try {
+            return jsonWriter.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            throw new SerializationException("Failed to serialize notification event for topic " + topic, e);
+        }
+    }
+}
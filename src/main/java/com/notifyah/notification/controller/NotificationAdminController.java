@@ -0,0 +1,71 @@
+package com.notifyah.notification.controller;
+
+import com.notifyah.notification.dto.DeadLetterRedriveResponse;
+import com.notifyah.notification.dto.InboxCacheStatsResponse;
+import com.notifyah.notification.retry.DeadLetterRedriveService;
+import com.notifyah.notification.service.RecentInboxCache;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Administrative operations on the notification pipeline.
+ */
+@RestController
+@RequestMapping("/api/admin/notifications")
+@Slf4j
+@RequiredArgsConstructor
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+public class NotificationAdminController {
+
+    private static final int MAX_REDRIVE_RECORDS = 100_000;
+
+    private final DeadLetterRedriveService deadLetterRedriveService;
+    private final RecentInboxCache recentInboxCache;
+
+    /**
+     * Republish dead-lettered notification events to the main topic.
+     * 
+     * @param max maximum number of dead-lettered records to process (default: 1000, max: 100000)
+     * @return counts of republished and dropped records
+     */
+    @PostMapping("/dead-letters/redrive")
+    public ResponseEntity<DeadLetterRedriveResponse> redriveDeadLetters(@RequestParam(defaultValue = "1000") int max) {
+        int boundedMax = Math.min(Math.max(max, 1), MAX_REDRIVE_RECORDS);
+        
+        log.info("Re-driving up to {} dead-lettered notification events", boundedMax);
+        DeadLetterRedriveResponse response = deadLetterRedriveService.redrive(boundedMax);
+        
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Hit/miss counters and size of this instance's recent-inbox cache.
+     * 
+     * @return cache statistics
+     */
+    @GetMapping("/inbox-cache")
+    public ResponseEntity<InboxCacheStatsResponse> inboxCacheStats() {
+        return ResponseEntity.ok(recentInboxCache.stats());
+    }
+
+    /**
+     * Compare a sample of cached inboxes with the repository now, dropping inconsistent ones.
+     * 
+     * @return cache statistics after the check
+     */
+    @PostMapping("/inbox-cache/verify")
+    public ResponseEntity<InboxCacheStatsResponse> verifyInboxCache() {
+        int inconsistent = recentInboxCache.verify();
+        log.info("Inbox cache check found {} inconsistent inboxes", inconsistent);
+        return ResponseEntity.ok(recentInboxCache.stats());
+    }
+}
@@ -1,6 +1,9 @@
 package com.notifyah.notification.controller;
 
+import com.notifyah.notification.dto.NotificationBulkActionResponse;
+import com.notifyah.notification.dto.NotificationCursorResponse;
 import com.notifyah.notification.dto.NotificationResponse;
+import com.notifyah.notification.dto.NotificationSelectionRequest;
 import com.notifyah.notification.service.NotificationService;
 import com.notifyah.common.security.UserPrincipal;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -9,6 +12,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -27,6 +31,8 @@ import java.util.Map;
 @SecurityRequirement(name = "bearerAuth")
 public class NotificationController {
 
+    private static final int MAX_CURSOR_LIMIT = 100;
+
     private final NotificationService notificationService;
 
     /**
@@ -44,7 +50,7 @@ public class NotificationController {
             @AuthenticationPrincipal UserPrincipal user) {
         
         Long userId = user.userId();
-        Pageable pageable = PageRequest.of(page, size);
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id"));
         
         log.info("Fetching notifications for user: {} with pagination: page={}, size={}", userId, page, size);
         Page<NotificationResponse> notifications = notificationService.getUserNotifications(userId, pageable);
@@ -52,6 +58,32 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    /**
+     * Get notifications for the authenticated user using keyset (cursor) pagination.
+     * Unlike the page-based endpoint, this never issues OFFSET or count queries,
+     * so deep scrolling costs the same as reading the first slice.
+     * 
+     * @param before exclusive cursor from a previous response's nextCursor (optional)
+     * @param limit slice size (default: 20, max: 100)
+     * @param user authenticated user principal
+     * @return slice of notifications, newest first
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<NotificationCursorResponse> getNotificationsByCursor(
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "20") int limit,
+            @AuthenticationPrincipal UserPrincipal user) {
+        
+        Long userId = user.userId();
+        int boundedLimit = Math.min(Math.max(limit, 1), MAX_CURSOR_LIMIT);
+        
+        log.info("Fetching notifications for user: {} with cursor: before={}, limit={}", userId, before, boundedLimit);
+        NotificationCursorResponse notifications =
+                notificationService.getUserNotificationsBefore(userId, before, boundedLimit);
+        
+        return ResponseEntity.ok(notifications);
+    }
+
     /**
      * Get count of unread notifications for the authenticated user.
      * 
@@ -71,6 +103,24 @@ public class NotificationController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get count of unread notifications for the authenticated user, broken down by type.
+     * 
+     * @param user authenticated user principal
+     * @return JSON with unread count per notification type
+     */
+    @GetMapping("/unread-count/by-type")
+    public ResponseEntity<Map<String, Long>> getUnreadCountByType(@AuthenticationPrincipal UserPrincipal user) {
+        Long userId = user.userId();
+        
+        log.info("Counting unread notifications by type for user: {}", userId);
+        Map<String, Long> response = new HashMap<>();
+        notificationService.countUnreadByType(userId)
+                .forEach((type, count) -> response.put(type.name(), count));
+        
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Mark a specific notification as read.
      * 
@@ -104,6 +154,24 @@ public class NotificationController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Mark several notifications of the authenticated user as read in one request.
+     * 
+     * @param selection notification IDs, or an inclusive ID range
+     * @param user authenticated user principal
+     * @return number of notifications that were unread and are now read
+     */
+    @PatchMapping("/bulk-read")
+    public ResponseEntity<NotificationBulkActionResponse> markAsRead(@RequestBody NotificationSelectionRequest selection,
+                                                                     @AuthenticationPrincipal UserPrincipal user) {
+        Long userId = user.userId();
+        
+        log.info("Marking selected notifications as read for user: {}", userId);
+        long marked = notificationService.markAsRead(userId, selection);
+        
+        return ResponseEntity.ok(new NotificationBulkActionResponse(marked));
+    }
+
     /**
      * Delete a specific notification.
      * 
@@ -121,4 +189,22 @@ public class NotificationController {
         return ResponseEntity.noContent().build();
     }
 
-} 
\ No newline at end of file
+    /**
+     * Delete several notifications of the authenticated user in one request.
+     * 
+     * @param selection notification IDs, or an inclusive ID range
+     * @param user authenticated user principal
+     * @return number of notifications deleted
+     */
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<NotificationBulkActionResponse> deleteNotifications(@RequestBody NotificationSelectionRequest selection,
+                                                                              @AuthenticationPrincipal UserPrincipal user) {
+        Long userId = user.userId();
+        
+        log.info("Deleting selected notifications for user: {}", userId);
+        long deleted = notificationService.delete(userId, selection);
+        
+        return ResponseEntity.ok(new NotificationBulkActionResponse(deleted));
+    }
+
+}
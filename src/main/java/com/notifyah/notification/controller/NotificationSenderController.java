@@ -1,17 +1,26 @@
 package com.notifyah.notification.controller;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notifyah.common.exception.ApiException;
+import com.notifyah.notification.dto.BulkSendResponse;
 import com.notifyah.notification.dto.NotificationEvent;
 import com.notifyah.notification.dto.NotificationRequest;
+import com.notifyah.notification.service.NotificationBulkSendService;
+import com.notifyah.notification.service.NotificationEventPublisher;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.Set;
+
 /**
  * Controller for users to send notifications directly
  */
@@ -22,32 +31,37 @@ import org.springframework.web.bind.annotation.*;
 @SecurityRequirement(name = "bearerAuth")
 public class NotificationSenderController {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
-    private static final String TOPIC = "comment-created";
+    /**
+     * Authorities allowed to address audiences (roles or ID lists), which fan out to many users.
+     */
+    private static final Set<String> AUDIENCE_AUTHORITIES = Set.of("ROLE_ADMIN", "ROLE_SUPER_ADMIN");
+
+    private final NotificationEventPublisher notificationEventPublisher;
+    private final NotificationBulkSendService notificationBulkSendService;
 
     /**
-     * Send notification directly by user
+     * Send notification directly by user.
+     * Audience fields are only accepted from ADMIN / SUPER_ADMIN.
      */
     @PostMapping
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<String> sendNotification(@RequestBody NotificationRequest request) {
+    public ResponseEntity<String> sendNotification(@RequestBody NotificationRequest request,
+                                                   Authentication authentication) {
+        if (request.hasAudience() && !mayAddressAudience(authentication)) {
+            throw new ApiException("audienceRole and audienceUserIds require the ADMIN role",
+                    HttpStatus.FORBIDDEN, "AUDIENCE_NOT_ALLOWED");
+        }
+        if (request.hasNullAudienceUserId()) {
+            throw new ApiException("audienceUserIds must not contain null", HttpStatus.BAD_REQUEST, "INVALID_AUDIENCE");
+        }
         try {
             log.info("User notification send request: {}", request);
 
             // Create NotificationEvent
-            NotificationEvent event = NotificationEvent.builder()
-                    .eventType(request.getEventType())
-                    .senderId(request.getSenderId())
-                    .targetUserId(request.getTargetUserId())
-                    .entityId(request.getEntityId())
-                    .content(request.getContent())
-                    .redirectUrl(request.getRedirectUrl())
-                    .build();
+            NotificationEvent event = request.toEvent();
 
-            // Serialize to JSON and send to Kafka
-            String jsonMessage = objectMapper.writeValueAsString(event);
-            kafkaTemplate.send(TOPIC, jsonMessage)
+            // Send to Kafka keyed by recipient (spooled locally if Kafka is unavailable)
+            notificationEventPublisher.submit(event)
                     .whenComplete((result, ex) -> {
                         if (ex == null) {
                             log.info("Notification sent successfully: {} -> user {}", 
@@ -59,10 +73,6 @@ public class NotificationSenderController {
 
             return ResponseEntity.ok("Notification sent successfully.");
             
-        } catch (JsonProcessingException e) {
-            log.error("JSON serialization error: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError()
-                    .body("JSON serialization error occurred while sending notification.");
         } catch (Exception e) {
             log.error("Error occurred while sending notification: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError()
@@ -92,9 +102,8 @@ public class NotificationSenderController {
                     .redirectUrl("/posts/" + (System.currentTimeMillis() % 1000))
                     .build();
 
-            // Serialize to JSON and send to Kafka
-            String jsonMessage = objectMapper.writeValueAsString(event);
-            kafkaTemplate.send(TOPIC, jsonMessage)
+            // Send to Kafka keyed by recipient (spooled locally if Kafka is unavailable)
+            notificationEventPublisher.submit(event)
                     .whenComplete((result, ex) -> {
                         if (ex == null) {
                             log.info("Quick notification sent successfully: {} -> user {}", 
@@ -106,14 +115,43 @@ public class NotificationSenderController {
 
             return ResponseEntity.ok("Quick notification sent successfully.");
             
-        } catch (JsonProcessingException e) {
-            log.error("JSON serialization error: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError()
-                    .body("JSON serialization error occurred while sending quick notification.");
         } catch (Exception e) {
             log.error("Error occurred while sending quick notification: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError()
                     .body("Error occurred while sending quick notification: " + e.getMessage());
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Send many notifications in one request.
+     * Accepts a JSON array or NDJSON (one request object per line); items are read as a stream
+     * and published without waiting on each other.
+     * The whole request is refused with 403 if an item has audience fields and the caller is not ADMIN / SUPER_ADMIN.
+     * 
+     * @param request HTTP request whose body holds the notification requests
+     * @param authentication the caller
+     * @return per-item results in submission order
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, NotificationBulkSendService.NDJSON_VALUE})
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<BulkSendResponse> sendBatch(HttpServletRequest request, Authentication authentication)
+            throws IOException {
+        BulkSendResponse response = notificationBulkSendService.send(request.getInputStream(),
+                mayAddressAudience(authentication));
+        log.info("Bulk notification send: {} accepted, {} rejected, {} failed, {} pending",
+                response.getAccepted(), response.getRejected(), response.getFailed(), response.getPending());
+        return ResponseEntity.ok(response);
+    }
+
+    private static boolean mayAddressAudience(Authentication authentication) {
+        if (authentication == null) {
+            return false;
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (AUDIENCE_AUTHORITIES.contains(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
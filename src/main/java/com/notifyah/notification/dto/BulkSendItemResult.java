@@ -0,0 +1,49 @@
+package com.notifyah.notification.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Outcome of one item of a bulk send request.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkSendItemResult {
+
+    public enum Status {
+        /**
+         * Acknowledged by Kafka
+         */
+        ACCEPTED,
+
+        /**
+         * Not sent because the item is invalid
+         */
+        REJECTED,
+
+        /**
+         * Valid, but Kafka did not acknowledge it; safe to resubmit
+         */
+        FAILED,
+
+        /**
+         * Handed to the producer but not acknowledged in time, so it may still be delivered;
+         * resubmit it with the same eventId so it is created at most once
+         */
+        PENDING
+    }
+
+    private final int index;
+    private final Status status;
+    /**
+     * Idempotency key of the published event, to resubmit it without creating a duplicate
+     */
+    private final UUID eventId;
+    private final Integer partition;
+    private final Long offset;
+    private final String error;
+}
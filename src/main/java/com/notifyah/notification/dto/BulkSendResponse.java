@@ -0,0 +1,20 @@
+package com.notifyah.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Response of the bulk send endpoint, with one result per submitted item in submission order.
+ */
+@Getter
+@AllArgsConstructor
+public class BulkSendResponse {
+
+    private final int accepted;
+    private final int rejected;
+    private final int failed;
+    private final int pending;
+    private final List<BulkSendItemResult> results;
+}
@@ -0,0 +1,22 @@
+package com.notifyah.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Result of re-driving the dead-letter topic.
+ */
+@Getter
+@AllArgsConstructor
+public class DeadLetterRedriveResponse {
+
+    /**
+     * Events republished to the main topic
+     */
+    private final int redriven;
+
+    /**
+     * Unreadable records that were dropped
+     */
+    private final int skipped;
+}
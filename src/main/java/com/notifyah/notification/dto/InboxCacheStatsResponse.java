@@ -0,0 +1,45 @@
+package com.notifyah.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Size and counters of the recent-inbox cache of this instance.
+ */
+@Getter
+@AllArgsConstructor
+public class InboxCacheStatsResponse {
+
+    private final boolean enabled;
+
+    /**
+     * Users with a cached inbox
+     */
+    private final int users;
+
+    /**
+     * Notifications kept per user
+     */
+    private final int capacity;
+
+    private final long hits;
+
+    private final long misses;
+
+    private final double hitRatio;
+
+    /**
+     * Inboxes dropped for size, idleness or age
+     */
+    private final long evictions;
+
+    /**
+     * Inboxes compared with the repository
+     */
+    private final long verified;
+
+    /**
+     * Compared inboxes that differed from the repository and were dropped
+     */
+    private final long inconsistencies;
+}
@@ -0,0 +1,17 @@
+package com.notifyah.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Result of a bulk mark-read or delete.
+ */
+@Getter
+@AllArgsConstructor
+public class NotificationBulkActionResponse {
+
+    /**
+     * Notifications marked as read or deleted; already read or missing ones are not counted
+     */
+    private final long affected;
+}
@@ -0,0 +1,24 @@
+package com.notifyah.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for keyset-paginated notification listings.
+ * Pass {@code nextCursor} as the {@code before} parameter to fetch the next (older) slice.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationCursorResponse {
+
+    private List<NotificationResponse> items;
+
+    /**
+     * ID of the oldest item in this slice, or null when there are no older notifications.
+     */
+    private Long nextCursor;
+}
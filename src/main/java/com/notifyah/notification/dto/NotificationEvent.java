@@ -1,9 +1,14 @@
 package com.notifyah.notification.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 
+import java.util.List;
+import java.util.UUID;
+
 /**
  * Kafka로 전송되는 알림 이벤트 DTO
+ * targetUserId 대신 audienceRole 또는 audienceUserIds를 지정하면 서버에서 수신자를 확장(fan-out)한다.
  */
 @Getter
 @Setter
@@ -12,10 +17,34 @@ import lombok.*;
 @Builder
 @ToString
 public class NotificationEvent {
+    
+    /**
+     * 이벤트 고유 ID - 재전송된 이벤트의 중복 처리를 막는 데 사용 (발행 시 없으면 자동 부여)
+     */
+    private UUID eventId;
+    
     private String eventType;
     private Long senderId;
     private Long targetUserId;
     private Long entityId;
     private String content;
     private String redirectUrl;
+    
+    /**
+     * 역할 기반 대상 (예: "USER") - 해당 역할의 모든 활성 사용자
+     */
+    private String audienceRole;
+    
+    /**
+     * 명시적 대상 사용자 ID 목록
+     */
+    private List<Long> audienceUserIds;
+    
+    /**
+     * 단일 사용자 대신 대상 그룹으로 보내는 이벤트인지 여부
+     */
+    @JsonIgnore
+    public boolean isAudienceEvent() {
+        return audienceRole != null || (audienceUserIds != null && !audienceUserIds.isEmpty());
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.notifyah.notification.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.notifyah.notification.entity.Notification;
+import com.notifyah.notification.entity.NotificationReadState;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Wire DTO for notifications pushed over WebSocket.
+ * Mirrors the fields of {@link NotificationResponse} that clients already read,
+ * without exposing the JPA entity; null fields are omitted from the frame.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NotificationPushMessage {
+
+    private final Long id;
+    private final String type;
+    private final String content;
+    private final String redirectUrl;
+    private final boolean read;
+    private final LocalDateTime createdAt;
+    private final Integer actorCount;
+    private final List<Long> actorIds;
+
+    /**
+     * Maps a Notification entity to its push representation.
+     * 
+     * @param notification the notification entity
+     * @return NotificationPushMessage DTO
+     */
+    public static NotificationPushMessage fromEntity(Notification notification) {
+        return fromEntity(notification, NotificationReadState.empty(notification.getRecipientId()));
+    }
+
+    /**
+     * Maps a Notification entity to its push representation, deriving the read flag from the recipient's read state.
+     * 
+     * @param notification the notification entity
+     * @param readState read watermark of the recipient
+     * @return NotificationPushMessage DTO
+     */
+    public static NotificationPushMessage fromEntity(Notification notification, NotificationReadState readState) {
+        return new NotificationPushMessage(
+                notification.getId(),
+                notification.getType().name(),
+                notification.getContent(),
+                notification.getRedirectUrl(),
+                readState.isRead(notification),
+                notification.getCreatedAt(),
+                notification.getMergedCount(),
+                notification.getActorIds()
+        );
+    }
+
+    /**
+     * Maps a projected row, deriving the read flag from the recipient's read state.
+     * 
+     * @param row the notification row
+     * @param readState read watermark of the recipient
+     * @return NotificationPushMessage DTO
+     */
+    public static NotificationPushMessage fromRow(NotificationRow row, NotificationReadState readState) {
+        return new NotificationPushMessage(
+                row.id(),
+                row.type().name(),
+                row.content(),
+                row.redirectUrl(),
+                row.read() || readState.covers(row.id()),
+                row.createdAt(),
+                row.mergedCount(),
+                row.actorIds()
+        );
+    }
+}
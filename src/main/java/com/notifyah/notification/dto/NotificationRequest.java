@@ -4,6 +4,10 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
 /**
  * 알림 전송 요청을 위한 DTO
  */
@@ -11,10 +15,53 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class NotificationRequest {
+    /**
+     * 클라이언트가 지정하는 멱등 키 (선택) - 같은 ID로 재요청하면 알림이 한 번만 생성된다
+     */
+    private UUID eventId;
     private String eventType;
     private Long senderId;
     private Long targetUserId;
     private Long entityId;
     private String content;
     private String redirectUrl;
+    /**
+     * 역할 단위 대상 그룹 - ADMIN / SUPER_ADMIN만 지정할 수 있다
+     */
+    private String audienceRole;
+    /**
+     * 사용자 ID 목록 대상 그룹 - ADMIN / SUPER_ADMIN만 지정할 수 있다
+     */
+    private List<Long> audienceUserIds;
+
+    /**
+     * @return true if the request addresses an audience instead of a single user
+     */
+    public boolean hasAudience() {
+        return audienceRole != null || (audienceUserIds != null && !audienceUserIds.isEmpty());
+    }
+
+    /**
+     * @return true if audienceUserIds holds a null entry, which cannot be encoded
+     */
+    public boolean hasNullAudienceUserId() {
+        return audienceUserIds != null && audienceUserIds.stream().anyMatch(Objects::isNull);
+    }
+
+    /**
+     * @return the Kafka event for this request
+     */
+    public NotificationEvent toEvent() {
+        return NotificationEvent.builder()
+                .eventId(eventId != null ? eventId : UUID.randomUUID())
+                .eventType(eventType)
+                .senderId(senderId)
+                .targetUserId(targetUserId)
+                .entityId(entityId)
+                .content(content)
+                .redirectUrl(redirectUrl)
+                .audienceRole(audienceRole)
+                .audienceUserIds(audienceUserIds)
+                .build();
+    }
 } 
\ No newline at end of file
@@ -1,11 +1,13 @@
 package com.notifyah.notification.dto;
 
 import com.notifyah.notification.entity.Notification;
+import com.notifyah.notification.entity.NotificationReadState;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * DTO for notification responses in the NotiFyah API.
@@ -22,6 +24,8 @@ public class NotificationResponse {
     private String redirectUrl;
     private boolean read;
     private LocalDateTime createdAt;
+    private Integer actorCount;
+    private List<Long> actorIds;
 
     /**
      * Maps a Notification entity to NotificationResponse DTO.
@@ -30,13 +34,46 @@ public class NotificationResponse {
      * @return NotificationResponse DTO
      */
     public static NotificationResponse fromEntity(Notification notification) {
+        return fromEntity(notification, NotificationReadState.empty(notification.getRecipientId()));
+    }
+
+    /**
+     * Maps a Notification entity to NotificationResponse DTO, deriving the read flag from the recipient's read state.
+     * 
+     * @param notification the notification entity
+     * @param readState read watermark of the recipient
+     * @return NotificationResponse DTO
+     */
+    public static NotificationResponse fromEntity(Notification notification, NotificationReadState readState) {
         return new NotificationResponse(
                 notification.getId(),
                 notification.getType().name(),
                 notification.getContent(),
                 notification.getRedirectUrl(),
-                notification.isRead(),
-                notification.getCreatedAt()
+                readState.isRead(notification),
+                notification.getCreatedAt(),
+                notification.getMergedCount(),
+                notification.getActorIds()
+        );
+    }
+
+    /**
+     * Maps a projected row, deriving the read flag from the recipient's read state.
+     * 
+     * @param row the notification row
+     * @param readState read watermark of the recipient
+     * @return NotificationResponse DTO
+     */
+    public static NotificationResponse fromRow(NotificationRow row, NotificationReadState readState) {
+        return new NotificationResponse(
+                row.id(),
+                row.type().name(),
+                row.content(),
+                row.redirectUrl(),
+                row.read() || readState.covers(row.id()),
+                row.createdAt(),
+                row.mergedCount(),
+                row.actorIds()
         );
     }
-} 
\ No newline at end of file
+}
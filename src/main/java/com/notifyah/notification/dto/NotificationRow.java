@@ -0,0 +1,52 @@
+package com.notifyah.notification.dto;
+
+import com.notifyah.notification.entity.Notification;
+import com.notifyah.notification.entity.NotificationType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Read-only projection of a notification for listings and replay.
+ * Filled directly by a JPQL constructor expression, so rows are never managed entities:
+ * no hydration into the persistence context, no snapshot for dirty checking.
+ *
+ * @param id notification ID
+ * @param type notification type
+ * @param content notification content
+ * @param redirectUrl redirect URL, may be null
+ * @param read the row's own read flag (the read watermark is applied on top, see
+ *             {@link com.notifyah.notification.entity.NotificationReadState#covers(long)})
+ * @param createdAt creation time
+ * @param actorCount merged event count, null on rows created before aggregation
+ * @param actorSample comma-separated sampled actor IDs, may be null
+ */
+public record NotificationRow(Long id,
+                              NotificationType type,
+                              String content,
+                              String redirectUrl,
+                              boolean read,
+                              LocalDateTime createdAt,
+                              Integer actorCount,
+                              String actorSample) {
+
+    /**
+     * Select list matching the canonical constructor, for queries over {@code Notification n}.
+     */
+    public static final String SELECT = "SELECT new com.notifyah.notification.dto.NotificationRow(" +
+            "n.id, n.type, n.content, n.redirectUrl, n.isRead, n.createdAt, n.actorCount, n.actorSample) ";
+
+    /**
+     * @return number of events merged into this notification, at least 1
+     */
+    public int mergedCount() {
+        return actorCount != null ? actorCount : 1;
+    }
+
+    /**
+     * @return sampled actor IDs, newest first; empty if none were recorded
+     */
+    public List<Long> actorIds() {
+        return Notification.parseActorSample(actorSample);
+    }
+}
@@ -0,0 +1,32 @@
+package com.notifyah.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Selects notifications of the authenticated user for a bulk operation:
+ * either an explicit ID list, or an inclusive ID range where a missing bound is open.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationSelectionRequest {
+
+    /**
+     * Notification IDs; mutually exclusive with the range
+     */
+    private List<Long> ids;
+
+    /**
+     * Lowest notification ID of the range, inclusive (null = from the oldest)
+     */
+    private Long fromId;
+
+    /**
+     * Highest notification ID of the range, inclusive (null = up to the newest)
+     */
+    private Long toId;
+}
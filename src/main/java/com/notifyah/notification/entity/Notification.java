@@ -1,17 +1,22 @@
 package com.notifyah.notification.entity;
 
+import com.notifyah.common.id.SnowflakeId;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Entity representing a notification in the NotiFyah system.
  */
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_recipient_id_id", columnList = "recipient_id, id DESC")
+})
 @Getter
 @Setter
 @Builder
@@ -19,8 +24,17 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Notification {
 
+    /**
+     * Time-ordered ID assigned in memory (see {@link SnowflakeId}).
+     * Always greater than IDs of rows created under the former IDENTITY strategy.
+     *
+     * <p>The table is partitioned by {@code created_at}, so its primary key is {@code (id, created_at)} and the
+     * database does not enforce that an ID is unique on its own. Uniqueness relies on every row getting its ID
+     * from the generator, with a distinct node ID per instance (checked at startup); rows are still updated and
+     * deleted by ID alone. The retention job reports any duplicate it finds.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     @NotNull
@@ -49,10 +63,63 @@ public class Notification {
     private LocalDateTime createdAt;
 
     /**
-     * Sets the creation timestamp before persisting the entity.
+     * ID of the entity the notification is about (post, comment, ...), used to aggregate
+     * notifications of the same type for the same entity.
+     */
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    /**
+     * Number of events merged into this notification (null on rows created before aggregation).
+     */
+    @Builder.Default
+    @Column(name = "actor_count")
+    private Integer actorCount = 1;
+
+    /**
+     * Comma-separated IDs of the most recent actors, newest first (see {@link #getActorIds()}).
+     */
+    @Size(max = 200)
+    @Column(name = "actor_sample", length = 200)
+    private String actorSample;
+
+    /**
+     * @return number of events merged into this notification, at least 1
+     */
+    public int getMergedCount() {
+        return actorCount != null ? actorCount : 1;
+    }
+
+    /**
+     * @return sampled actor IDs, newest first; empty if none were recorded
+     */
+    public List<Long> getActorIds() {
+        return parseActorSample(actorSample);
+    }
+
+    /**
+     * @param actorSample comma-separated actor IDs, may be null
+     * @return the IDs in order; empty if none
+     */
+    public static List<Long> parseActorSample(String actorSample) {
+        if (actorSample == null || actorSample.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>();
+        for (String id : actorSample.split(",")) {
+            ids.add(Long.valueOf(id));
+        }
+        return ids;
+    }
+
+    /**
+     * Sets the creation timestamp before persisting the entity,
+     * unless one was assigned already (fan-out rows share the timestamp of their event).
      */
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.notifyah.notification.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Record that the event with a given ID was already ingested for a recipient.
+ * The primary key is the uniqueness guarantee behind idempotent ingestion; it lives in its own table
+ * because one notification may stand for many events (aggregation) and one event for many
+ * notifications (fan-out).
+ */
+@Entity
+@Table(name = "notification_event_receipts", indexes = {
+        @Index(name = "idx_notification_event_receipts_created_at", columnList = "created_at")
+})
+@IdClass(NotificationEventReceipt.Key.class)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationEventReceipt {
+
+    @Id
+    @Column(name = "event_id", nullable = false)
+    private UUID eventId;
+
+    @Id
+    @Column(name = "recipient_id", nullable = false)
+    private Long recipientId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Composite primary key: (event_id, recipient_id).
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private UUID eventId;
+        private Long recipientId;
+    }
+}
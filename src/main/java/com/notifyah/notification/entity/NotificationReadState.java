@@ -0,0 +1,83 @@
+package com.notifyah.notification.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read watermark of one user: every notification with an ID up to {@code readUpTo} is read,
+ * plus the few newer ones listed in {@code readIds}.
+ *
+ * <p>Notification IDs are time-ordered, so "read all" is a single-row update of the watermark instead of
+ * rewriting every unread row, and marking one notification read appends to a small array instead of
+ * updating the notification and its indexes. The read flag of a notification is derived at query time:
+ * it is read if its own {@code is_read} column is set or this state covers its ID. The row writes are only
+ * deferred, not avoided: {@link com.notifyah.notification.service.ReadStateCompactionService} later sets the
+ * flag of covered rows in batches, off the request path.
+ */
+@Entity
+@Table(name = "notification_read_state")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationReadState {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * Notifications with an ID up to and including this one are read.
+     */
+    @Column(name = "read_up_to", nullable = false)
+    private long readUpTo;
+
+    /**
+     * IDs above the watermark that were marked read individually.
+     */
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "read_ids", nullable = false, columnDefinition = "bigint[]")
+    private Long[] readIds;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * @param userId the user ID
+     * @return transient state of a user who never used the watermark; covers no notification
+     */
+    public static NotificationReadState empty(Long userId) {
+        return new NotificationReadState(userId, 0L, new Long[0], null);
+    }
+
+    /**
+     * @param notification a notification of this user
+     * @return whether the notification is read, by its own flag or by this state
+     */
+    public boolean isRead(Notification notification) {
+        return notification.isRead() || covers(notification.getId());
+    }
+
+    /**
+     * @param notificationId a notification ID of this user
+     * @return whether the watermark or the exception set marks the notification as read
+     */
+    public boolean covers(long notificationId) {
+        if (notificationId <= readUpTo) {
+            return true;
+        }
+        if (readIds != null) {
+            for (Long readId : readIds) {
+                if (readId != null && readId == notificationId) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -1,26 +1,78 @@
 package com.notifyah.notification.entity;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Enum representing the different types of notifications in the NotiFyah system.
+ * Each type has a stable wire code used by the binary event format; codes must never be reused.
  */
 public enum NotificationType {
     /**
      * Notification for a new comment on a post
      */
-    NEW_COMMENT,
+    NEW_COMMENT(1),
     
     /**
      * Notification for a new follower
      */
-    NEW_FOLLOW,
+    NEW_FOLLOW(2),
     
     /**
      * Notification for a post being liked
      */
-    POST_LIKED,
+    POST_LIKED(3),
     
     /**
      * System-generated notification
      */
-    SYSTEM
-} 
\ No newline at end of file
+    SYSTEM(4);
+
+    private static final Map<String, NotificationType> BY_NAME = new HashMap<>();
+    private static final NotificationType[] BY_CODE;
+
+    static {
+        int maxCode = 0;
+        for (NotificationType type : values()) {
+            BY_NAME.put(type.name(), type);
+            maxCode = Math.max(maxCode, type.code);
+        }
+        BY_CODE = new NotificationType[maxCode + 1];
+        for (NotificationType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final int code;
+
+    NotificationType(int code) {
+        this.code = code;
+    }
+
+    /**
+     * @return the stable wire code of this type (never 0)
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Look up a type by wire code.
+     * 
+     * @param code the wire code
+     * @return the type, or null if the code is unknown (e.g. written by a newer producer)
+     */
+    public static NotificationType fromCode(int code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+
+    /**
+     * Look up a type by name without the exception {@link #valueOf(String)} throws for unknown names.
+     * 
+     * @param name the type name
+     * @return the type, or null if the name is null or unknown
+     */
+    public static NotificationType fromName(String name) {
+        return name != null ? BY_NAME.get(name) : null;
+    }
+}
@@ -0,0 +1,38 @@
+package com.notifyah.notification.lane;
+
+import com.notifyah.notification.TopicNames;
+
+/**
+ * Priority classes of notification events. Each lane has its own topic, consumer group and listener pool,
+ * so a backlog in one lane never delays another.
+ */
+public enum NotificationLane {
+
+    /**
+     * Urgent notices (system announcements); small polls and dedicated consumers for low latency.
+     */
+    HIGH(TopicNames.NOTIFICATION_HIGH),
+
+    /**
+     * Interactive notifications (comments, follows).
+     */
+    DEFAULT(TopicNames.COMMENT_CREATED),
+
+    /**
+     * High-volume, latency-tolerant notifications (likes); large polls, paused first under load.
+     */
+    BULK(TopicNames.NOTIFICATION_BULK);
+
+    private final String topic;
+
+    NotificationLane(String topic) {
+        this.topic = topic;
+    }
+
+    /**
+     * @return the topic events of this lane are published to
+     */
+    public String getTopic() {
+        return topic;
+    }
+}
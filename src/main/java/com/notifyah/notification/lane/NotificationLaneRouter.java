@@ -0,0 +1,47 @@
+package com.notifyah.notification.lane;
+
+import com.notifyah.notification.dto.NotificationEvent;
+import com.notifyah.notification.entity.NotificationType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Assigns notification events to a {@link NotificationLane} by their notification type.
+ * Types not listed in {@code notification.lanes.high.types} or {@code notification.lanes.bulk.types}
+ * (including unknown event types) go to the default lane.
+ */
+@Component
+public class NotificationLaneRouter {
+
+    private final Map<NotificationType, NotificationLane> lanes = new EnumMap<>(NotificationType.class);
+
+    public NotificationLaneRouter(@Value("${notification.lanes.high.types:SYSTEM}") String[] highTypes,
+                                  @Value("${notification.lanes.bulk.types:POST_LIKED}") String[] bulkTypes) {
+        for (String name : bulkTypes) {
+            lanes.put(NotificationType.valueOf(name.trim()), NotificationLane.BULK);
+        }
+        for (String name : highTypes) {
+            lanes.put(NotificationType.valueOf(name.trim()), NotificationLane.HIGH);
+        }
+    }
+
+    /**
+     * @param event the event
+     * @return lane of the event's notification type
+     */
+    public NotificationLane laneOf(NotificationEvent event) {
+        NotificationType type = NotificationType.fromName(event.getEventType());
+        return type != null ? lanes.getOrDefault(type, NotificationLane.DEFAULT) : NotificationLane.DEFAULT;
+    }
+
+    /**
+     * @param event the event
+     * @return topic the event is published to
+     */
+    public String topicOf(NotificationEvent event) {
+        return laneOf(event).getTopic();
+    }
+}
@@ -0,0 +1,246 @@
+package com.notifyah.notification.listener;
+
+import com.notifyah.notification.lane.NotificationLane;
+import com.notifyah.notification.service.NotificationIngestMetrics;
+import com.notifyah.websocket.SessionWriterPool;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Adapts consumption of the comment-created topic to what the database and the WebSocket writers can absorb.
+ *
+ * <p>Every {@code notification.backpressure.interval-ms} the controller samples the smoothed per-row insert latency
+ * of each lane, the number of frames queued for WebSocket sessions and the consumer lag, then:
+ * <ul>
+ *   <li>pauses all partitions of the running listener when its rows are slower than {@code insert-row-latency-high-us}
+ *       or the outbound queues exceed {@code queue-depth-high}, and resumes them after at least
+ *       {@code min-pause-ms} once the queues are below {@code queue-depth-low};</li>
+ *   <li>removes a consumer thread while its inserts are slow, since more parallel writers only deepen
+ *       a database queue, and adds one back while lag builds up and inserts are fast again.</li>
+ * </ul>
+ * Pausing keeps the consumers polling (heartbeats, no rebalance) without fetching records, so a slow database
+ * shows up as lag instead of poll timeouts. Resizing restarts the container and rebalances the group,
+ * so it is rate-limited by {@code resize-cooldown-ms}.
+ *
+ * <p>Latency is judged per row, net of {@code insert-overhead-ms} per insert, and per lane: the bulk lane's
+ * large batches take longer without being slower, and a slow bulk lane must not throttle the default lane.
+ * The bulk lane is paused whenever the default lane is, while its own rows are slow (for at least
+ * {@code min-pause-ms}, then measured afresh), and while the high-priority lane lags by more than
+ * {@code notification.lanes.high.max-lag} records, so urgent notifications do not compete with bulk inserts
+ * for the database. The high-priority lane itself is never paused or resized.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ConsumerBackpressureController {
+
+    private static final String[] LISTENER_IDS = {"notification-batch-listener", "notification-record-listener"};
+    private static final String HIGH_LISTENER_ID = "notification-high-listener";
+    private static final String BULK_LISTENER_ID = "notification-bulk-listener";
+
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final NotificationIngestMetrics ingestMetrics;
+    private final SessionWriterPool sessionWriterPool;
+
+    @Value("${notification.backpressure.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notification.backpressure.insert-overhead-ms:20}")
+    private double insertOverheadMillis;
+
+    @Value("${notification.backpressure.insert-row-latency-high-us:1000}")
+    private double rowLatencyHighMicros;
+
+    @Value("${notification.backpressure.insert-row-latency-low-us:150}")
+    private double rowLatencyLowMicros;
+
+    @Value("${notification.backpressure.queue-depth-high:50000}")
+    private long queueDepthHigh;
+
+    @Value("${notification.backpressure.queue-depth-low:10000}")
+    private long queueDepthLow;
+
+    @Value("${notification.backpressure.lag-scale-up:10000}")
+    private double lagScaleUp;
+
+    @Value("${notification.backpressure.min-pause-ms:5000}")
+    private long minPauseMillis;
+
+    @Value("${notification.backpressure.min-concurrency:1}")
+    private int minConcurrency;
+
+    @Value("${notification.backpressure.max-concurrency:0}")
+    private int maxConcurrency;
+
+    @Value("${notification.kafka.partitions:12}")
+    private int partitions;
+
+    @Value("${notification.backpressure.resize-cooldown-ms:30000}")
+    private long resizeCooldownMillis;
+
+    @Value("${notification.lanes.high.max-lag:100}")
+    private double highLaneMaxLag;
+
+    private long pausedAtMillis;
+    private long bulkPausedAtMillis;
+    private long lastResizeAtMillis;
+
+    /**
+     * Concurrency to apply once the container has stopped for a resize; 0 if no resize is in progress.
+     */
+    private volatile int pendingConcurrency;
+    private final AtomicBoolean stoppedForResize = new AtomicBoolean();
+
+    @Scheduled(fixedDelayString = "${notification.backpressure.interval-ms:1000}")
+    public void adjust() {
+        if (!enabled) {
+            return;
+        }
+        adjustDefaultLane();
+        adjustBulkLane();
+    }
+
+    private void adjustDefaultLane() {
+        ConcurrentMessageListenerContainer<?, ?> container = activeContainer();
+        if (container == null) {
+            return;
+        }
+
+        if (pendingConcurrency > 0) {
+            completeResize(container);
+            return;
+        }
+        if (!container.isRunning()) {
+            return;
+        }
+
+        double rowLatency = ingestMetrics.getRowLatencyMicros(NotificationLane.DEFAULT, insertOverheadMillis);
+        long queued = sessionWriterPool.getQueuedFrameCount();
+        double lag = consumerLag(container);
+        long now = System.currentTimeMillis();
+        boolean dbSlow = rowLatency > rowLatencyHighMicros;
+        boolean pushSaturated = queued > queueDepthHigh;
+
+        if (container.isPauseRequested()) {
+            if (now - pausedAtMillis >= minPauseMillis && queued < queueDepthLow) {
+                // Old latency samples describe the database before the pause; measure afresh
+                ingestMetrics.reset(NotificationLane.DEFAULT);
+                container.resume();
+                log.info("Resumed notification consumption after {} ms (queued frames: {}, lag: {})",
+                        now - pausedAtMillis, queued, (long) lag);
+            }
+            return;
+        }
+
+        if (dbSlow || pushSaturated) {
+            container.pause();
+            pausedAtMillis = now;
+            log.warn("Paused notification consumption: row insert latency {} us, queued frames {}, lag {}",
+                    Math.round(rowLatency), queued, (long) lag);
+            if (dbSlow) {
+                resize(container, container.getConcurrency() - 1, now);
+            }
+            return;
+        }
+
+        if (lag > lagScaleUp && rowLatency >= 0 && rowLatency < rowLatencyLowMicros && queued < queueDepthLow) {
+            resize(container, container.getConcurrency() + 1, now);
+        }
+    }
+
+    private void adjustBulkLane() {
+        MessageListenerContainer bulk = listenerRegistry.getListenerContainer(BULK_LISTENER_ID);
+        if (bulk == null || !bulk.isRunning()) {
+            return;
+        }
+        ConcurrentMessageListenerContainer<?, ?> defaultLane = activeContainer();
+        MessageListenerContainer high = listenerRegistry.getListenerContainer(HIGH_LISTENER_ID);
+        double highLag = high != null && high.isRunning() ? consumerLag(high) : 0;
+        double rowLatency = ingestMetrics.getRowLatencyMicros(NotificationLane.BULK, insertOverheadMillis);
+        boolean bulkSlow = rowLatency > rowLatencyHighMicros;
+        long now = System.currentTimeMillis();
+        if (bulkSlow && bulk.isPauseRequested() && now - bulkPausedAtMillis >= minPauseMillis) {
+            // A paused lane records no new samples; forget the old ones so it can be measured again
+            ingestMetrics.reset(NotificationLane.BULK);
+            bulkSlow = false;
+        }
+        boolean shouldPause = (defaultLane != null && defaultLane.isPauseRequested()) || highLag > highLaneMaxLag
+                || bulkSlow;
+
+        if (shouldPause && !bulk.isPauseRequested()) {
+            bulk.pause();
+            bulkPausedAtMillis = now;
+            log.warn("Paused bulk lane consumption (high lane lag: {}, bulk row insert latency: {} us)",
+                    (long) highLag, Math.round(rowLatency));
+        } else if (!shouldPause && bulk.isPauseRequested()) {
+            bulk.resume();
+            log.info("Resumed bulk lane consumption");
+        }
+    }
+
+    private void resize(ConcurrentMessageListenerContainer<?, ?> container, int target, long now) {
+        int upper = Math.min(maxConcurrency > 0 ? maxConcurrency : partitions, partitions);
+        int bounded = Math.max(Math.max(minConcurrency, 1), Math.min(target, upper));
+        if (bounded == container.getConcurrency() || now - lastResizeAtMillis < resizeCooldownMillis) {
+            return;
+        }
+        lastResizeAtMillis = now;
+        pendingConcurrency = bounded;
+        log.info("Resizing notification consumer concurrency {} -> {}", container.getConcurrency(), bounded);
+        // Concurrency can only change while stopped; the restart happens on a later tick
+        container.stop(() -> stoppedForResize.set(true));
+    }
+
+    private void completeResize(ConcurrentMessageListenerContainer<?, ?> container) {
+        if (!stoppedForResize.compareAndSet(true, false)) {
+            return;
+        }
+        boolean wasPaused = container.isPauseRequested();
+        container.setConcurrency(pendingConcurrency);
+        pendingConcurrency = 0;
+        container.start();
+        if (wasPaused) {
+            container.pause();
+        }
+        log.info("Notification consumer restarted with concurrency {}", container.getConcurrency());
+    }
+
+    private ConcurrentMessageListenerContainer<?, ?> activeContainer() {
+        for (String id : LISTENER_IDS) {
+            MessageListenerContainer container = listenerRegistry.getListenerContainer(id);
+            if (container instanceof ConcurrentMessageListenerContainer<?, ?> concurrent
+                    && (concurrent.isRunning() || pendingConcurrency > 0)) {
+                return concurrent;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return sum over consumers of their maximum partition lag, 0 if not reported yet
+     */
+    private double consumerLag(MessageListenerContainer container) {
+        double lag = 0;
+        for (Map<MetricName, ? extends Metric> clientMetrics : container.metrics().values()) {
+            for (Map.Entry<MetricName, ? extends Metric> metric : clientMetrics.entrySet()) {
+                if ("records-lag-max".equals(metric.getKey().name())
+                        && "consumer-fetch-manager-metrics".equals(metric.getKey().group())
+                        && metric.getValue().metricValue() instanceof Double value && !value.isNaN()) {
+                    lag += value;
+                }
+            }
+        }
+        return lag;
+    }
+}
@@ -1,42 +1,155 @@
 package com.notifyah.notification.listener;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notifyah.notification.TopicNames;
 import com.notifyah.notification.dto.NotificationEvent;
+import com.notifyah.notification.retry.NotificationRetryPublisher;
 import com.notifyah.notification.service.NotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Kafka listener service for processing notification events.
- * Consumes messages from Kafka topics and logs the received events.
+ * Consumes messages from Kafka topics and persists them as notifications.
+ * Runs in batch mode by default; the per-record listener is kept for comparison
+ * and can be switched on with {@code notification.kafka.batch-enabled=false}.
+ * Each {@link com.notifyah.notification.lane.NotificationLane} is consumed by its own batch listener
+ * in its own consumer group, so rebalances and backlogs of one lane do not stall the others.
  */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class NotificationEventListener {
 
-    private final ObjectMapper objectMapper;
     private final NotificationService notificationService;
+    private final NotificationRetryPublisher retryPublisher;
 
     /**
-     * Listens to the "comment-created" Kafka topic and processes notification events.
+     * Listens to all lane topics one record at a time.
      * 
-     * @param message JSON string representing the notification event
+     * Unreadable records are moved to the dead-letter topic before their offset is committed.
+     *
+     * @param record the decoded notification event; its value is null if the record was unreadable
      */
-    @KafkaListener(topics = "comment-created", groupId = "notification-group")
-    public void handleCommentCreated(String message) {
+    @KafkaListener(id = "notification-record-listener",
+            topics = {TopicNames.NOTIFICATION_HIGH, TopicNames.COMMENT_CREATED, TopicNames.NOTIFICATION_BULK},
+            groupId = "notification-group",
+            containerFactory = "recordKafkaListenerContainerFactory",
+            autoStartup = "#{!${notification.kafka.batch-enabled:true}}")
+    public void handleCommentCreated(ConsumerRecord<String, NotificationEvent> record) {
+        long startNanos = System.nanoTime();
+        NotificationEvent event = record.value();
+        if (event == null) {
+            retryPublisher.deadLetterIfUnreadable(record);
+            return;
+        }
         try {
-            log.info("Received Kafka message: {}", message);
-            
-            NotificationEvent event = objectMapper.readValue(message, NotificationEvent.class);
-            log.info("Parsed notification event: {}", event);
+            log.debug("Received notification event: {}", event);
             
             notificationService.createNotification(event);
+            log.debug("Processed record in {} us", (System.nanoTime() - startNanos) / 1_000);
             
         } catch (Exception e) {
-            log.error("Error processing notification event: {}", message, e);
+            log.warn("Error processing notification event, scheduling retry: {}", event, e);
+            // Throws if the retry topic is unreachable, so the record is redelivered instead of lost
+            retryPublisher.scheduleRetry(event, 1, e);
+        }
+    }
+
+    /**
+     * Listens to the "comment-created" Kafka topic (default lane) and persists each poll with one bulk insert.
+     *
+     * @param records decoded notification events of one poll, in partition order
+     */
+    @KafkaListener(id = "notification-batch-listener", topics = TopicNames.COMMENT_CREATED,
+            groupId = "notification-group",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            autoStartup = "${notification.kafka.batch-enabled:true}")
+    public void handleCommentCreatedBatch(List<ConsumerRecord<String, NotificationEvent>> records) {
+        ingest(records);
+    }
+
+    /**
+     * Listens to the high-priority lane.
+     *
+     * @param records decoded notification events of one poll, in partition order
+     */
+    @KafkaListener(id = "notification-high-listener", topics = TopicNames.NOTIFICATION_HIGH,
+            groupId = "notification-high-group",
+            containerFactory = "highLaneKafkaListenerContainerFactory",
+            autoStartup = "${notification.kafka.batch-enabled:true}")
+    public void handleHighPriorityBatch(List<ConsumerRecord<String, NotificationEvent>> records) {
+        ingest(records);
+    }
+
+    /**
+     * Listens to the bulk lane.
+     *
+     * @param records decoded notification events of one poll, in partition order
+     */
+    @KafkaListener(id = "notification-bulk-listener", topics = TopicNames.NOTIFICATION_BULK,
+            groupId = "notification-bulk-group",
+            containerFactory = "bulkLaneKafkaListenerContainerFactory",
+            autoStartup = "${notification.kafka.batch-enabled:true}")
+    public void handleBulkBatch(List<ConsumerRecord<String, NotificationEvent>> records) {
+        ingest(records);
+    }
+
+    /**
+     * Persists one poll with one bulk insert.
+     * Records the deserializer could not read arrive as null and are moved to the dead-letter topic.
+     * If the bulk insert fails, the events are processed one by one and only the failing ones are moved
+     * to the retry topics, so one bad record neither blocks the partition nor loses its neighbours.
+     * The offsets are committed only once every event is persisted or handed to a retry topic.
+     */
+    private void ingest(List<ConsumerRecord<String, NotificationEvent>> records) {
+        long startNanos = System.nanoTime();
+
+        List<NotificationEvent> events = new ArrayList<>(records.size());
+        List<NotificationEvent> audienceEvents = new ArrayList<>();
+        for (ConsumerRecord<String, NotificationEvent> record : records) {
+            NotificationEvent event = record.value();
+            if (event == null) {
+                // Throws if the dead-letter topic is unreachable, so the batch is redelivered instead of lost
+                retryPublisher.deadLetterIfUnreadable(record);
+                continue;
+            }
+            // Fan-outs are not atomic, so they are kept out of the bulk insert and its one-by-one fallback
+            if (event.isAudienceEvent()) {
+                audienceEvents.add(event);
+            } else {
+                events.add(event);
+            }
+        }
+
+        try {
+            notificationService.createNotifications(events);
+        } catch (Exception e) {
+            log.warn("Bulk insert of {} events failed, falling back to one by one: {}", events.size(), e.getMessage());
+            for (NotificationEvent event : events) {
+                processOrRetry(event);
+            }
+        }
+        for (NotificationEvent event : audienceEvents) {
+            processOrRetry(event);
+        }
+
+        long elapsedMicros = (System.nanoTime() - startNanos) / 1_000;
+        log.debug("Processed batch of {} records ({} persisted) in {} us ({} us/record)",
+                records.size(), events.size() + audienceEvents.size(), elapsedMicros,
+                records.isEmpty() ? 0 : elapsedMicros / records.size());
+    }
+
+    private void processOrRetry(NotificationEvent event) {
+        try {
+            notificationService.createNotifications(List.of(event));
+        } catch (Exception e) {
+            retryPublisher.scheduleRetry(event, 1, e);
         }
     }
-} 
\ No newline at end of file
+}
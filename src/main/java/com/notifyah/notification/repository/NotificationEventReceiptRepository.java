@@ -0,0 +1,48 @@
+package com.notifyah.notification.repository;
+
+import com.notifyah.notification.entity.NotificationEventReceipt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for NotificationEventReceipt entity.
+ */
+@Repository
+public interface NotificationEventReceiptRepository extends JpaRepository<NotificationEventReceipt, NotificationEventReceipt.Key> {
+
+    /**
+     * Insert receipts for many (event, recipient) pairs in one statement, skipping pairs already present.
+     * Must run in the transaction that inserts the notifications, so a failed insert releases its claims.
+     * 
+     * @param eventIds comma-separated event UUIDs
+     * @param recipientIds comma-separated recipient IDs, positionally matching {@code eventIds}
+     * @return the newly claimed pairs as {@code "<eventId>:<recipientId>"}; pairs missing from it are duplicates
+     */
+    @Transactional
+    @Query(value = "INSERT INTO notification_event_receipts (event_id, recipient_id, created_at) " +
+            "SELECT CAST(t.e AS uuid), CAST(t.r AS bigint), now() " +
+            "FROM unnest(string_to_array(:eventIds, ','), string_to_array(:recipientIds, ',')) AS t(e, r) " +
+            "ON CONFLICT DO NOTHING " +
+            "RETURNING CAST(event_id AS text) || ':' || recipient_id", nativeQuery = true)
+    List<String> claim(@Param("eventIds") String eventIds, @Param("recipientIds") String recipientIds);
+
+    /**
+     * Delete a chunk of receipts older than the dedup window.
+     * 
+     * @param cutoff receipts created before this are deleted
+     * @param limit maximum number of rows to delete
+     * @return number of rows deleted
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM notification_event_receipts WHERE ctid IN (" +
+            "SELECT ctid FROM notification_event_receipts WHERE created_at < :cutoff LIMIT :limit)", nativeQuery = true)
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
@@ -0,0 +1,171 @@
+package com.notifyah.notification.repository;
+
+import com.notifyah.notification.entity.NotificationReadState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for NotificationReadState entity.
+ * Writes are single native upserts, so concurrent requests of one user never lose an update.
+ * Writes that also report which notifications they covered must run after {@link #lock(Long)} in the same
+ * transaction: their statement snapshot would otherwise miss a concurrent request's change, and both would
+ * count the same notifications.
+ *
+ * <p>The watermark never moves above {@code safeId}, the lowest ID generated at a moment a few seconds ago.
+ * A notification can commit with an ID below its recipient's newest one: it was generated by a node whose
+ * clock lags, or its transaction was still in flight. Covering such a notification with the watermark would
+ * mark it read before the user ever saw it. Newer notifications are therefore marked read by their own
+ * flag, which only reaches committed rows; only a notification committed later than the safety margin after
+ * its ID was generated can still be covered unseen.
+ */
+@Repository
+public interface NotificationReadStateRepository extends JpaRepository<NotificationReadState, Long> {
+
+    /**
+     * Statement of {@link #addReadIds}, shared with the EXPLAIN test that checks its indexes.
+     */
+    String ADD_READ_IDS = "WITH target AS (SELECT n.id, n.type FROM notifications n " +
+            "WHERE n.recipient_id = :userId AND n.id = ANY(CAST(string_to_array(:ids, ',') AS bigint[])) " +
+            "AND n.is_read = false AND " + NotificationRepository.NOT_COVERED_BY_READ_STATE + "), " +
+            "added AS (INSERT INTO notification_read_state (user_id, read_up_to, read_ids, updated_at) " +
+            "SELECT :userId, 0, ARRAY(SELECT id FROM target), now() " +
+            "WHERE EXISTS (SELECT 1 FROM target) AND (SELECT COUNT(*) FROM target) <= :maxReadIds " +
+            "ON CONFLICT (user_id) DO UPDATE " +
+            "SET read_ids = notification_read_state.read_ids || ARRAY(SELECT r FROM unnest(EXCLUDED.read_ids) r " +
+            "WHERE r <> ALL(notification_read_state.read_ids)), updated_at = EXCLUDED.updated_at " +
+            "WHERE cardinality(notification_read_state.read_ids) + cardinality(EXCLUDED.read_ids) <= :maxReadIds " +
+            "RETURNING 1) " +
+            "SELECT t.type, COUNT(*) FROM target t WHERE EXISTS (SELECT 1 FROM added) GROUP BY t.type";
+
+    /**
+     * Create the user's read state if missing and lock it until the end of the current transaction,
+     * so later statements of the transaction see every committed change of it and no concurrent one.
+     * 
+     * @param userId the ID of the user
+     * @return number of rows written (1)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = "INSERT INTO notification_read_state (user_id, read_up_to, read_ids, updated_at) " +
+            "VALUES (:userId, 0, CAST(ARRAY[] AS bigint[]), now()) " +
+            "ON CONFLICT (user_id) DO UPDATE SET updated_at = notification_read_state.updated_at", nativeQuery = true)
+    int lock(@Param("userId") Long userId);
+
+    /**
+     * Move a user's watermark to their newest notification, but not above {@code safeId}, and drop exceptions
+     * it now covers. Unread notifications above {@code safeId} (the last few seconds) get their own flag set.
+     * The newest ID comes from one probe of the (recipient_id, id DESC) index.
+     * 
+     * @param userId the ID of the user
+     * @param safeId highest ID the watermark may cover
+     * @return number of rows written (1)
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "WITH flagged AS (UPDATE notifications SET is_read = true " +
+            "WHERE recipient_id = :userId AND id > :safeId AND is_read = false RETURNING 1) " +
+            "INSERT INTO notification_read_state (user_id, read_up_to, read_ids, updated_at) " +
+            "VALUES (:userId, LEAST(:safeId, COALESCE((SELECT MAX(id) FROM notifications WHERE recipient_id = :userId), 0)), " +
+            "CAST(ARRAY[] AS bigint[]), now()) " +
+            "ON CONFLICT (user_id) DO UPDATE " +
+            "SET read_up_to = GREATEST(notification_read_state.read_up_to, EXCLUDED.read_up_to), " +
+            "read_ids = ARRAY(SELECT r FROM unnest(notification_read_state.read_ids) r " +
+            "WHERE r > GREATEST(notification_read_state.read_up_to, EXCLUDED.read_up_to)), " +
+            "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int advanceToLatest(@Param("userId") Long userId, @Param("safeId") long safeId);
+
+    /**
+     * Move a user's watermark up to the given notification ID, capped at their newest notification and at
+     * {@code safeId}, and report which unread notifications that covered. Unread notifications between
+     * {@code safeId} and {@code toId} get their own flag set instead. Call after {@link #lock(Long)}.
+     * 
+     * @param userId the ID of the user
+     * @param toId the highest notification ID to cover
+     * @param safeId highest ID the watermark may cover
+     * @return rows of [String type, Long covered] of notifications that were unread until now
+     */
+    @Transactional
+    @Query(value = "WITH covered AS (SELECT n.type FROM notifications n " +
+            "WHERE n.recipient_id = :userId AND n.id <= :toId AND n.is_read = false AND " +
+            NotificationRepository.NOT_COVERED_BY_READ_STATE + "), " +
+            "flagged AS (UPDATE notifications SET is_read = true " +
+            "WHERE recipient_id = :userId AND id > :safeId AND id <= :toId AND is_read = false RETURNING 1), " +
+            "advanced AS (INSERT INTO notification_read_state (user_id, read_up_to, read_ids, updated_at) " +
+            "VALUES (:userId, LEAST(:toId, :safeId, " +
+            "COALESCE((SELECT MAX(id) FROM notifications WHERE recipient_id = :userId), 0)), " +
+            "CAST(ARRAY[] AS bigint[]), now()) " +
+            "ON CONFLICT (user_id) DO UPDATE " +
+            "SET read_up_to = GREATEST(notification_read_state.read_up_to, EXCLUDED.read_up_to), " +
+            "read_ids = ARRAY(SELECT r FROM unnest(notification_read_state.read_ids) r " +
+            "WHERE r > GREATEST(notification_read_state.read_up_to, EXCLUDED.read_up_to)), " +
+            "updated_at = EXCLUDED.updated_at RETURNING 1) " +
+            "SELECT type, COUNT(*) FROM covered GROUP BY type", nativeQuery = true)
+    List<Object[]> advanceTo(@Param("userId") Long userId, @Param("toId") long toId, @Param("safeId") long safeId);
+
+    /**
+     * Add a user's unread notifications among the given IDs to their exception set, in one statement,
+     * unless the set would grow beyond its maximum size. IDs of other users and IDs already in the set are ignored.
+     * Call after {@link #lock(Long)}, so the reported counts match the IDs actually added.
+     * 
+     * @param userId the ID of the user
+     * @param ids comma-separated notification IDs
+     * @param maxReadIds maximum size of the exception set
+     * @return rows of [String type, Long marked]; empty if nothing was unread or the set is full
+     */
+    @Transactional
+    @Query(value = ADD_READ_IDS, nativeQuery = true)
+    List<Object[]> addReadIds(@Param("userId") Long userId, @Param("ids") String ids, @Param("maxReadIds") int maxReadIds);
+
+    /**
+     * Find users whose read state changed since the given time, in user ID order.
+     * 
+     * @param since lower bound of updated_at
+     * @param after user ID to continue after (0 to start)
+     * @param limit maximum number of users
+     * @return user IDs
+     */
+    @Query(value = "SELECT user_id FROM notification_read_state WHERE updated_at >= :since AND user_id > :after " +
+            "ORDER BY user_id LIMIT :limit", nativeQuery = true)
+    List<Long> findUserIdsUpdatedSince(@Param("since") LocalDateTime since, @Param("after") long after,
+                                       @Param("limit") int limit);
+
+    /**
+     * Set the read flag of up to {@code limit} notifications that the user's read state covers but whose
+     * flag is still unset. Unread counters are not touched: they already went down when the state covered them.
+     * 
+     * @param userId the ID of the user
+     * @param limit maximum number of rows updated
+     * @return number of rows updated
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE notifications SET is_read = true " +
+            "WHERE recipient_id = :userId AND is_read = false AND id IN (SELECT n.id FROM notifications n " +
+            "JOIN notification_read_state s ON s.user_id = n.recipient_id " +
+            "WHERE n.recipient_id = :userId AND n.is_read = false " +
+            "AND (n.id <= s.read_up_to OR n.id = ANY(s.read_ids)) LIMIT :limit)", nativeQuery = true)
+    int flagCovered(@Param("userId") Long userId, @Param("limit") int limit);
+
+    /**
+     * Drop the IDs from a user's exception set whose notifications are flagged read or gone.
+     * Flags are never cleared, so this is safe alongside concurrent writes to the set.
+     * 
+     * @param userId the ID of the user
+     * @return number of rows written (0 or 1)
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE notification_read_state s SET read_ids = ARRAY(SELECT r FROM unnest(s.read_ids) r " +
+            "WHERE EXISTS (SELECT 1 FROM notifications n " +
+            "WHERE n.recipient_id = s.user_id AND n.id = r AND n.is_read = false)) " +
+            "WHERE s.user_id = :userId AND cardinality(s.read_ids) > 0", nativeQuery = true)
+    int pruneReadIds(@Param("userId") Long userId);
+}
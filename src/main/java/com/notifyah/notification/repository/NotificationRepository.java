@@ -1,6 +1,8 @@
 package com.notifyah.notification.repository;
 
+import com.notifyah.notification.dto.NotificationRow;
 import com.notifyah.notification.entity.Notification;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,8 +10,11 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Repository interface for Notification entity.
@@ -19,31 +24,103 @@ import java.util.Optional;
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
 
     /**
-     * Find notifications by recipient ID with pagination.
+     * Native predicate on a notification aliased {@code n}: not covered by its recipient's read watermark.
+     */
+    String NOT_COVERED_BY_READ_STATE = "NOT EXISTS (SELECT 1 FROM notification_read_state s " +
+            "WHERE s.user_id = n.recipient_id AND (n.id <= s.read_up_to OR n.id = ANY(s.read_ids)))";
+
+    // Native statements of the hot paths, shared with the EXPLAIN test that checks their indexes
+
+    String COUNT_UNREAD_GROUP_BY_TYPE = "SELECT n.type, COUNT(*) FROM notifications n " +
+            "LEFT JOIN notification_read_state s ON s.user_id = n.recipient_id " +
+            "WHERE n.recipient_id = :recipientId AND n.is_read = false " +
+            "AND (s.user_id IS NULL OR (n.id > s.read_up_to AND NOT n.id = ANY(s.read_ids))) " +
+            "GROUP BY n.type";
+
+    String EXISTS_BY_ID_AND_RECIPIENT_ID = "SELECT EXISTS (SELECT 1 FROM notifications " +
+            "WHERE id = :id AND recipient_id = :recipientId)";
+
+    String MARK_ALL_AS_READ = "UPDATE notifications SET is_read = true " +
+            "WHERE recipient_id = :userId AND is_read = false";
+
+    String MARK_READ_BY_IDS = "WITH marked AS (UPDATE notifications AS n SET is_read = true " +
+            "WHERE n.recipient_id = :recipientId AND n.id = ANY(CAST(string_to_array(:ids, ',') AS bigint[])) " +
+            "AND n.is_read = false AND " + NOT_COVERED_BY_READ_STATE + " RETURNING n.type) " +
+            "SELECT type, COUNT(*) FROM marked GROUP BY type";
+
+    String DELETE_BY_IDS = "WITH deleted AS (DELETE FROM notifications AS n " +
+            "WHERE n.recipient_id = :recipientId AND n.id = ANY(CAST(string_to_array(:ids, ',') AS bigint[])) " +
+            "RETURNING n.type, (n.is_read = false AND " + NOT_COVERED_BY_READ_STATE + ") AS unread) " +
+            "SELECT type, COUNT(*), COUNT(*) FILTER (WHERE unread) FROM deleted GROUP BY type";
+
+    /**
+     * Find notifications by recipient ID with pagination, as read-only rows.
      * 
      * @param recipientId the ID of the notification recipient
      * @param pageable pagination information
-     * @return page of notifications for the recipient
+     * @return page of notification rows for the recipient
      */
-    Page<Notification> findByRecipientId(Long recipientId, Pageable pageable);
+    @Query(value = NotificationRow.SELECT + "FROM Notification n WHERE n.recipientId = :recipientId",
+            countQuery = "SELECT COUNT(n) FROM Notification n WHERE n.recipientId = :recipientId")
+    Page<NotificationRow> findRowsByRecipientId(@Param("recipientId") Long recipientId, Pageable pageable);
 
     /**
-     * Count unread notifications for a specific recipient.
+     * Find the newest notifications of a recipient as read-only rows, newest first.
+     * Keyset read backed by the (recipient_id, id DESC) index; no count query is issued.
      * 
      * @param recipientId the ID of the notification recipient
-     * @return count of unread notifications
+     * @param limit maximum number of rows
+     * @return notification rows ordered by ID descending
      */
-    long countByRecipientIdAndIsReadFalse(Long recipientId);
+    @Query(NotificationRow.SELECT + "FROM Notification n WHERE n.recipientId = :recipientId ORDER BY n.id DESC")
+    List<NotificationRow> findRowsNewestFirst(@Param("recipientId") Long recipientId, Limit limit);
 
     /**
-     * Find a specific notification by ID and recipient ID.
-     * This ensures a user can only access their own notifications.
+     * Find notifications of a recipient older than the given cursor as read-only rows, newest first.
+     * Keyset read backed by the (recipient_id, id DESC) index; no count query is issued.
      * 
-     * @param id the notification ID
      * @param recipientId the ID of the notification recipient
-     * @return optional containing the notification if found
+     * @param before exclusive upper bound on the notification ID
+     * @param limit maximum number of rows
+     * @return notification rows ordered by ID descending
      */
-    Optional<Notification> findByIdAndRecipientId(Long id, Long recipientId);
+    @Query(NotificationRow.SELECT + "FROM Notification n WHERE n.recipientId = :recipientId AND n.id < :before " +
+            "ORDER BY n.id DESC")
+    List<NotificationRow> findRowsBefore(@Param("recipientId") Long recipientId, @Param("before") Long before, Limit limit);
+
+    /**
+     * Find notifications of a recipient newer than the given ID as read-only rows, oldest first.
+     * Keyset read used to replay notifications missed while a client was disconnected.
+     * 
+     * @param recipientId the ID of the notification recipient
+     * @param after exclusive lower bound on the notification ID
+     * @param limit maximum number of rows
+     * @return notification rows ordered by ID ascending
+     */
+    @Query(NotificationRow.SELECT + "FROM Notification n WHERE n.recipientId = :recipientId AND n.id > :after " +
+            "ORDER BY n.id ASC")
+    List<NotificationRow> findRowsAfter(@Param("recipientId") Long recipientId, @Param("after") Long after, Limit limit);
+
+    /**
+     * Check whether a recipient has notifications newer than the given ID.
+     * 
+     * @param recipientId the ID of the notification recipient
+     * @param after exclusive lower bound on the notification ID
+     * @return true if at least one newer notification exists
+     */
+    boolean existsByRecipientIdAndIdGreaterThan(Long recipientId, Long after);
+
+    /**
+     * Count unread notifications of a recipient grouped by type.
+     * Used to bootstrap and reconcile the maintained unread counters.
+     * Notifications covered by the recipient's read watermark (see
+     * {@link com.notifyah.notification.entity.NotificationReadState}) count as read.
+     * 
+     * @param recipientId the ID of the notification recipient
+     * @return rows of [String type, Long count]
+     */
+    @Query(value = COUNT_UNREAD_GROUP_BY_TYPE, nativeQuery = true)
+    List<Object[]> countUnreadGroupByType(@Param("recipientId") Long recipientId);
 
     /**
      * Mark all unread notifications as read for a specific user.
@@ -52,6 +129,172 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
      * @return number of notifications updated
      */
     @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.recipientId = :userId AND n.isRead = false")
+    @Query(value = MARK_ALL_AS_READ, nativeQuery = true)
     int markAllAsRead(@Param("userId") Long userId);
-} 
\ No newline at end of file
+
+    /**
+     * Set the read flag of a recipient's unread notifications among the given IDs, in one statement.
+     * Notifications of other users, already flagged or covered by the read watermark are left untouched.
+     * 
+     * @param recipientId the ID of the notification recipient
+     * @param ids comma-separated notification IDs
+     * @return rows of [String type, Long marked]
+     */
+    @Transactional
+    @Query(value = MARK_READ_BY_IDS, nativeQuery = true)
+    List<Object[]> markReadByIds(@Param("recipientId") Long recipientId, @Param("ids") String ids);
+
+    /**
+     * Set the read flag of a recipient's unread notifications in an inclusive ID range, in one statement.
+     * 
+     * @param recipientId the ID of the notification recipient
+     * @param fromId lowest notification ID, inclusive
+     * @param toId highest notification ID, inclusive
+     * @return rows of [String type, Long marked]
+     */
+    @Transactional
+    @Query(value = "WITH marked AS (UPDATE notifications AS n SET is_read = true " +
+            "WHERE n.recipient_id = :recipientId AND n.id BETWEEN :fromId AND :toId " +
+            "AND n.is_read = false AND " + NOT_COVERED_BY_READ_STATE + " RETURNING n.type) " +
+            "SELECT type, COUNT(*) FROM marked GROUP BY type", nativeQuery = true)
+    List<Object[]> markReadInRange(@Param("recipientId") Long recipientId, @Param("fromId") long fromId,
+                                   @Param("toId") long toId);
+
+    /**
+     * Delete a recipient's notifications among the given IDs, in one statement.
+     * 
+     * @param recipientId the ID of the notification recipient
+     * @param ids comma-separated notification IDs
+     * @return rows of [String type, Long deleted, Long deletedUnread]
+     */
+    @Transactional
+    @Query(value = DELETE_BY_IDS, nativeQuery = true)
+    List<Object[]> deleteByIds(@Param("recipientId") Long recipientId, @Param("ids") String ids);
+
+    /**
+     * Delete a recipient's notifications in an inclusive ID range, in one statement.
+     * 
+     * @param recipientId the ID of the notification recipient
+     * @param fromId lowest notification ID, inclusive
+     * @param toId highest notification ID, inclusive
+     * @return rows of [String type, Long deleted, Long deletedUnread]
+     */
+    @Transactional
+    @Query(value = "WITH deleted AS (DELETE FROM notifications AS n " +
+            "WHERE n.recipient_id = :recipientId AND n.id BETWEEN :fromId AND :toId " +
+            "RETURNING n.type, (n.is_read = false AND " + NOT_COVERED_BY_READ_STATE + ") AS unread) " +
+            "SELECT type, COUNT(*), COUNT(*) FILTER (WHERE unread) FROM deleted GROUP BY type", nativeQuery = true)
+    List<Object[]> deleteInRange(@Param("recipientId") Long recipientId, @Param("fromId") long fromId,
+                                 @Param("toId") long toId);
+
+    /**
+     * Check whether a notification exists and belongs to the recipient.
+     * 
+     * @param id the notification ID
+     * @param recipientId the ID of the notification recipient
+     * @return true if it exists
+     */
+    @Query(value = EXISTS_BY_ID_AND_RECIPIENT_ID, nativeQuery = true)
+    boolean existsByIdAndRecipientId(@Param("id") Long id, @Param("recipientId") Long recipientId);
+
+    /**
+     * Merge further events into an aggregated notification that is still unread,
+     * by its own flag and by the recipient's read watermark.
+     * 
+     * @param id the notification ID
+     * @param merged number of events merged since the last update
+     * @param actorSample new actor sample (comma-separated IDs, newest first)
+     * @param content content of the latest event
+     * @param redirectUrl redirect URL of the latest event
+     * @return 1 if merged, 0 if the notification was read or deleted in the meantime
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE notifications SET actor_count = COALESCE(actor_count, 1) + :merged, " +
+            "actor_sample = :actorSample, content = :content, redirect_url = :redirectUrl " +
+            "WHERE id = :id AND is_read = false AND NOT EXISTS (SELECT 1 FROM notification_read_state s " +
+            "WHERE s.user_id = notifications.recipient_id AND (notifications.id <= s.read_up_to " +
+            "OR notifications.id = ANY(s.read_ids)))", nativeQuery = true)
+    int mergeActors(@Param("id") Long id, @Param("merged") int merged, @Param("actorSample") String actorSample,
+                    @Param("content") String content, @Param("redirectUrl") String redirectUrl);
+
+    /**
+     * Create the missing monthly partitions of the notifications table for an inclusive range of months.
+     * 
+     * @param fromMonth any day of the first month
+     * @param toMonth any day of the last month
+     * @return number of partitions created
+     */
+    @Transactional
+    @Query(value = "SELECT notifications_ensure_partitions(CAST(:fromMonth AS date), CAST(:toMonth AS date))",
+            nativeQuery = true)
+    int ensurePartitions(@Param("fromMonth") LocalDate fromMonth, @Param("toMonth") LocalDate toMonth);
+
+    /**
+     * Find the newest monthly partition of the notifications table.
+     * 
+     * @return its month as yyyyMM, or null if there is no monthly partition
+     */
+    @Query(value = "SELECT MAX(CAST(substring(c.relname FROM 16) AS integer)) FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = CAST('notifications' AS regclass) " +
+            "AND left(c.relname, 15) = 'notifications_p' AND length(c.relname) = 21", nativeQuery = true)
+    Integer findLastPartitionMonth();
+
+    /**
+     * Find notification IDs stored more than once since the given time. The primary key is
+     * {@code (id, created_at)}, so the database does not reject such duplicates itself.
+     * 
+     * @param since lower bound of created_at
+     * @param limit maximum number of IDs returned
+     * @return duplicated IDs; empty while the ID invariant holds
+     */
+    @Query(value = "SELECT id FROM notifications WHERE created_at >= :since " +
+            "GROUP BY id HAVING COUNT(*) > 1 LIMIT :limit", nativeQuery = true)
+    List<Long> findDuplicateIdsSince(@Param("since") LocalDateTime since, @Param("limit") int limit);
+
+    /**
+     * Drop every monthly partition that ends on or before the cutoff, after subtracting its unread
+     * notifications from the stored unread counters.
+     * 
+     * @param cutoff first day that is kept
+     * @return names of the dropped partitions
+     */
+    @Transactional
+    @Query(value = "SELECT * FROM notifications_drop_partitions_before(CAST(:cutoff AS date))", nativeQuery = true)
+    List<String> dropPartitionsBefore(@Param("cutoff") LocalDate cutoff);
+
+    /**
+     * Find recipients that received notifications since the given time, in ID order.
+     * Keyset read over the recent partitions only.
+     * 
+     * @param since lower bound on the creation time
+     * @param after exclusive lower bound on the recipient ID
+     * @param limit maximum number of recipients
+     * @return recipient IDs in ascending order
+     */
+    @Query(value = "SELECT DISTINCT n.recipient_id FROM notifications n " +
+            "WHERE n.created_at >= :since AND n.recipient_id > :after " +
+            "ORDER BY n.recipient_id LIMIT :limit", nativeQuery = true)
+    List<Long> findRecipientsSince(@Param("since") LocalDateTime since, @Param("after") long after,
+                                   @Param("limit") int limit);
+
+    /**
+     * Delete a chunk of a recipient's notifications beyond the newest {@code keep}, oldest first.
+     * 
+     * @param recipientId the ID of the notification recipient
+     * @param keep number of newest notifications that are never deleted
+     * @param limit maximum number of rows to delete
+     * @return rows of [String type, Long deleted, Long deletedUnread]
+     */
+    @Transactional
+    @Query(value = "WITH deleted AS (DELETE FROM notifications AS n " +
+            "WHERE n.recipient_id = :recipientId AND n.id IN (SELECT k.id FROM notifications k " +
+            "WHERE k.recipient_id = :recipientId AND k.id <= (SELECT t.id FROM notifications t " +
+            "WHERE t.recipient_id = :recipientId ORDER BY t.id DESC OFFSET :keep LIMIT 1) " +
+            "ORDER BY k.id ASC LIMIT :limit) " +
+            "RETURNING n.type, (n.is_read = false AND " + NOT_COVERED_BY_READ_STATE + ") AS unread) " +
+            "SELECT type, COUNT(*), COUNT(*) FILTER (WHERE unread) FROM deleted GROUP BY type", nativeQuery = true)
+    List<Object[]> deleteBeyondNewest(@Param("recipientId") Long recipientId, @Param("keep") int keep,
+                                      @Param("limit") int limit);
+}
@@ -0,0 +1,78 @@
+package com.notifyah.notification.repository;
+
+import com.notifyah.notification.entity.UnreadCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for UnreadCounter entity.
+ * Counter writes are single native statements so concurrent nodes can apply deltas atomically.
+ * They always run in their own transaction, since they are issued from after-commit callbacks
+ * and from read-only service methods.
+ */
+@Repository
+public interface UnreadCounterRepository extends JpaRepository<UnreadCounter, UnreadCounter.Key> {
+
+    /**
+     * Find all per-type counters of a user.
+     * 
+     * @param userId the ID of the user
+     * @return counters of the user, empty if never initialized
+     */
+    List<UnreadCounter> findByUserId(Long userId);
+
+    /**
+     * Atomically add a delta to an existing counter, never going below zero.
+     * 
+     * @param userId the ID of the user
+     * @param type the notification type name
+     * @param delta the value to add (may be negative)
+     * @return number of rows updated; 0 means the user's counters are not initialized yet
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "UPDATE notification_unread_counters " +
+            "SET unread_count = GREATEST(unread_count + :delta, 0), updated_at = now() " +
+            "WHERE user_id = :userId AND type = :type", nativeQuery = true)
+    int addDelta(@Param("userId") Long userId, @Param("type") String type, @Param("delta") long delta);
+
+    /**
+     * Atomically add a delta to the counters of many users at once.
+     * Users whose counters are not initialized yet are skipped; their bootstrap counts the rows anyway.
+     * 
+     * @param userIds the IDs of the users
+     * @param type the notification type name
+     * @param delta the value to add (may be negative)
+     * @return number of rows updated
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "UPDATE notification_unread_counters " +
+            "SET unread_count = GREATEST(unread_count + :delta, 0), updated_at = now() " +
+            "WHERE user_id IN (:userIds) AND type = :type", nativeQuery = true)
+    int addDeltaForUsers(@Param("userIds") Collection<Long> userIds, @Param("type") String type, @Param("delta") long delta);
+
+    /**
+     * Insert or overwrite a counter with an absolute value.
+     * 
+     * @param userId the ID of the user
+     * @param type the notification type name
+     * @param count the absolute unread count
+     * @return number of rows written
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "INSERT INTO notification_unread_counters (user_id, type, unread_count, updated_at) " +
+            "VALUES (:userId, :type, :count, now()) " +
+            "ON CONFLICT (user_id, type) DO UPDATE " +
+            "SET unread_count = EXCLUDED.unread_count, updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int upsert(@Param("userId") Long userId, @Param("type") String type, @Param("count") long count);
+}
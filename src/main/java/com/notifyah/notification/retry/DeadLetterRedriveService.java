@@ -0,0 +1,105 @@
+package com.notifyah.notification.retry;
+
+import com.notifyah.notification.TopicNames;
+import com.notifyah.notification.dto.DeadLetterRedriveResponse;
+import com.notifyah.notification.dto.NotificationEvent;
+import com.notifyah.notification.service.NotificationEventPublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Republishes dead-lettered events to the main topic in bulk, e.g. after the cause of the failures was fixed.
+ *
+ * <p>The dead-letter topic is read with a dedicated consumer group whose committed offsets mark what was
+ * already re-driven. Offsets are committed only after the broker acknowledged the republished events,
+ * so an interrupted re-drive repeats events rather than losing them.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DeadLetterRedriveService {
+
+    private static final String REDRIVE_GROUP = "notification-dlt-redrive";
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(2);
+    private static final long SEND_TIMEOUT_SECONDS = 30;
+
+    private final ConsumerFactory<String, NotificationEvent> batchConsumerFactory;
+    private final NotificationEventPublisher notificationEventPublisher;
+
+    /**
+     * Re-drives up to {@code maxRecords} dead-lettered events, oldest first.
+     * 
+     * @param maxRecords maximum number of records to consume from the dead-letter topic
+     * @return counts of republished and dropped records
+     */
+    public synchronized DeadLetterRedriveResponse redrive(int maxRecords) {
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(Math.min(maxRecords, 500)));
+        overrides.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+
+        int redriven = 0;
+        int skipped = 0;
+        try (Consumer<String, NotificationEvent> consumer =
+                     batchConsumerFactory.createConsumer(REDRIVE_GROUP, null, "-redrive", overrides)) {
+            List<TopicPartition> partitions = new ArrayList<>();
+            for (PartitionInfo info : consumer.partitionsFor(TopicNames.COMMENT_CREATED_DLT)) {
+                partitions.add(new TopicPartition(info.topic(), info.partition()));
+            }
+            // Manual assignment: no group rebalance to wait for
+            consumer.assign(partitions);
+
+            while (redriven + skipped < maxRecords) {
+                ConsumerRecords<String, NotificationEvent> records = consumer.poll(POLL_TIMEOUT);
+                if (records.isEmpty()) {
+                    break;
+                }
+
+                Map<TopicPartition, OffsetAndMetadata> processed = new HashMap<>();
+                List<CompletableFuture<?>> sends = new ArrayList<>();
+                for (ConsumerRecord<String, NotificationEvent> record : records) {
+                    if (redriven + skipped >= maxRecords) {
+                        break;
+                    }
+                    if (record.value() != null) {
+                        sends.add(notificationEventPublisher.publish(record.value()));
+                        redriven++;
+                    } else {
+                        skipped++;
+                    }
+                    processed.put(new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1));
+                }
+
+                CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                        .get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                consumer.commitSync(processed);
+                log.info("Re-drove {} dead-lettered notification events so far ({} skipped)", redriven, skipped);
+            }
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("Dead-letter re-drive stopped after {} events: {}", redriven, e.getMessage(), e);
+            throw new IllegalStateException("Dead-letter re-drive failed after " + redriven + " events", e);
+        }
+        return new DeadLetterRedriveResponse(redriven, skipped);
+    }
+}
@@ -0,0 +1,159 @@
+package com.notifyah.notification.retry;
+
+import com.notifyah.notification.TopicNames;
+import com.notifyah.notification.dto.NotificationEvent;
+import com.notifyah.notification.service.NotificationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Consumes the retry topics, off the hot path of the main listener.
+ *
+ * <p>Each tier has its own container, so a record waiting on a long tier never holds back a shorter one.
+ * Records of one tier share the same delay and are therefore due in offset order: when a record is not
+ * due yet, only its partition is paused and rewound to that record, while the other partitions of the
+ * container keep being consumed. Records of the held partition that were fetched in the same poll are
+ * skipped without acknowledgment. The partition is resumed once the record is due, and the record is
+ * fetched again from the rewound position.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationRetryListener implements ConsumerSeekAware {
+
+    private static final String FIRST_LISTENER_ID = "notification-retry-5s-listener";
+    private static final String SECOND_LISTENER_ID = "notification-retry-30s-listener";
+    private static final String THIRD_LISTENER_ID = "notification-retry-5m-listener";
+
+    /**
+     * Upper bound of a single wait, so a record is re-checked periodically even on the longest tier.
+     */
+    private static final long MAX_WAIT_MILLIS = 30_000;
+
+    private final NotificationService notificationService;
+    private final NotificationRetryPublisher retryPublisher;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+
+    /**
+     * Partitions paused until their first record is due, keyed by partition.
+     */
+    private final Map<TopicPartition, Hold> holds = new ConcurrentHashMap<>();
+
+    @KafkaListener(id = FIRST_LISTENER_ID, topics = TopicNames.COMMENT_CREATED_RETRY_5S,
+            groupId = "notification-retry-group", containerFactory = "retryKafkaListenerContainerFactory")
+    public void handleFirstRetry(ConsumerRecord<String, NotificationEvent> record, Acknowledgment ack,
+                                 Consumer<?, ?> consumer) {
+        handleRetry(FIRST_LISTENER_ID, record, ack, consumer);
+    }
+
+    @KafkaListener(id = SECOND_LISTENER_ID, topics = TopicNames.COMMENT_CREATED_RETRY_30S,
+            groupId = "notification-retry-group", containerFactory = "retryKafkaListenerContainerFactory")
+    public void handleSecondRetry(ConsumerRecord<String, NotificationEvent> record, Acknowledgment ack,
+                                  Consumer<?, ?> consumer) {
+        handleRetry(SECOND_LISTENER_ID, record, ack, consumer);
+    }
+
+    @KafkaListener(id = THIRD_LISTENER_ID, topics = TopicNames.COMMENT_CREATED_RETRY_5M,
+            groupId = "notification-retry-group", containerFactory = "retryKafkaListenerContainerFactory")
+    public void handleThirdRetry(ConsumerRecord<String, NotificationEvent> record, Acknowledgment ack,
+                                 Consumer<?, ?> consumer) {
+        handleRetry(THIRD_LISTENER_ID, record, ack, consumer);
+    }
+
+    private void handleRetry(String listenerId, ConsumerRecord<String, NotificationEvent> record,
+                             Acknowledgment ack, Consumer<?, ?> consumer) {
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        Hold hold = holds.get(partition);
+        if (hold != null) {
+            if (record.offset() > hold.offset()) {
+                // Fetched in the same poll as the held record; redelivered after it
+                return;
+            }
+            holds.remove(partition);
+        }
+
+        NotificationEvent event = record.value();
+        if (event == null) {
+            // Throws if the dead-letter topic cannot be reached, leaving this record unacknowledged
+            retryPublisher.deadLetterIfUnreadable(record);
+            ack.acknowledge();
+            return;
+        }
+
+        long waitMillis = NotificationRetryPublisher.dueAtOf(record.headers()) - System.currentTimeMillis();
+        if (waitMillis > 0) {
+            hold(listenerId, partition, record.offset(), Math.min(waitMillis, MAX_WAIT_MILLIS), consumer);
+            return;
+        }
+
+        int attempts = NotificationRetryPublisher.attemptsOf(record.headers());
+        try {
+            notificationService.createNotifications(List.of(event));
+            log.info("Notification event succeeded on retry {} from {}", attempts, record.topic());
+        } catch (Exception e) {
+            // Throws if the next tier cannot be reached, leaving this record unacknowledged
+            retryPublisher.scheduleRetry(event, attempts + 1, e);
+        }
+        ack.acknowledge();
+    }
+
+    private void hold(String listenerId, TopicPartition partition, long offset, long waitMillis, Consumer<?, ?> consumer) {
+        // Called on the consumer thread, so seeking the consumer directly is safe
+        consumer.seek(partition, offset);
+        holds.put(partition, new Hold(listenerId, offset, System.currentTimeMillis() + waitMillis));
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(listenerId);
+        if (container != null) {
+            container.pausePartition(partition);
+        }
+    }
+
+    /**
+     * Resumes held partitions whose first record is due. The hold itself stays until that record
+     * is redelivered, so records of an earlier poll still in flight keep being skipped.
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void resumeDuePartitions() {
+        long now = System.currentTimeMillis();
+        holds.forEach((partition, hold) -> {
+            if (hold.dueAtMillis() <= now) {
+                resume(partition, hold);
+            }
+        });
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        // Another consumer takes over from the committed offset; a stale hold would skip its records later
+        for (TopicPartition partition : partitions) {
+            Hold hold = holds.remove(partition);
+            if (hold != null) {
+                resume(partition, hold);
+            }
+        }
+    }
+
+    private void resume(TopicPartition partition, Hold hold) {
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(hold.listenerId());
+        if (container != null && container.isPartitionPauseRequested(partition)) {
+            container.resumePartition(partition);
+        }
+    }
+
+    private record Hold(String listenerId, long offset, long dueAtMillis) {
+    }
+}
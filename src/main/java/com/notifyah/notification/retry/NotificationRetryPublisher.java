@@ -0,0 +1,170 @@
+package com.notifyah.notification.retry;
+
+import com.notifyah.notification.TopicNames;
+import com.notifyah.notification.dto.NotificationEvent;
+import com.notifyah.notification.service.NotificationEventPublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves events that failed processing to the next retry tier, or to the dead-letter topic.
+ * Retry state travels in record headers, so the event payload is republished unchanged.
+ *
+ * <p>Failures caused by a transient database condition (connection loss, timeouts, lock conflicts) say nothing
+ * about the event itself, so they are not dead-lettered when the tiers are exhausted: they stay on the last tier
+ * until {@code notification.retry.max-transient-attempts} attempts have failed.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationRetryPublisher {
+
+    public static final String ATTEMPTS_HEADER = "x-notification-attempts";
+    public static final String DUE_AT_HEADER = "x-notification-due-at";
+    public static final String ERROR_HEADER = "x-notification-error";
+
+    private static final long SEND_TIMEOUT_SECONDS = 10;
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final LogAccessor LOG_ACCESSOR = new LogAccessor(NotificationRetryPublisher.class);
+
+    private final KafkaTemplate<String, NotificationEvent> notificationEventKafkaTemplate;
+    private final DeadLetterPublishingRecoverer unreadableRecordRecoverer;
+
+    @Value("${notification.retry.first-delay-ms:5000}")
+    private long firstDelayMillis;
+
+    @Value("${notification.retry.second-delay-ms:30000}")
+    private long secondDelayMillis;
+
+    @Value("${notification.retry.third-delay-ms:300000}")
+    private long thirdDelayMillis;
+
+    @Value("${notification.retry.max-transient-attempts:50}")
+    private int maxTransientAttempts;
+
+    /**
+     * Schedules another attempt for an event, waiting until the broker acknowledged it
+     * so the caller may commit the failed record's offset afterwards.
+     * 
+     * @param event the event that failed
+     * @param failedAttempts number of attempts that failed so far, including this one
+     * @param cause the failure
+     * @throws IllegalStateException if the event could not be published; the caller must not commit its offset
+     */
+    public void scheduleRetry(NotificationEvent event, int failedAttempts, Exception cause) {
+        RetryTier tier = RetryTier.afterFailures(failedAttempts);
+        if (tier == null && failedAttempts < maxTransientAttempts && isTransient(cause)) {
+            tier = RetryTier.last();
+        }
+        String topic = tier != null ? tier.getTopic() : TopicNames.COMMENT_CREATED_DLT;
+
+        ProducerRecord<String, NotificationEvent> record =
+                new ProducerRecord<>(topic, NotificationEventPublisher.keyOf(event), event);
+        record.headers().add(ATTEMPTS_HEADER, bytes(String.valueOf(failedAttempts)));
+        if (tier != null) {
+            long dueAt = System.currentTimeMillis() + delayMillis(tier);
+            record.headers().add(DUE_AT_HEADER, bytes(String.valueOf(dueAt)));
+        }
+        String error = String.valueOf(cause.getMessage());
+        record.headers().add(ERROR_HEADER, bytes(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error));
+
+        try {
+            notificationEventKafkaTemplate.send(record).get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("Failed to publish notification event to " + topic, e);
+        }
+
+        if (tier != null) {
+            log.warn("Notification event failed (attempt {}), retrying in {}: {}", failedAttempts, Duration.ofMillis(delayMillis(tier)), event);
+        } else {
+            log.error("Notification event failed {} times, moved to dead-letter topic: {}", failedAttempts, event);
+        }
+    }
+
+    /**
+     * Moves a record the deserializer could not read to the dead-letter topic with its original bytes,
+     * waiting until the broker acknowledged it so the caller may commit the record's offset afterwards.
+     *
+     * @param record a consumed record without value
+     * @return true if the record was unreadable and has been dead-lettered, false if it simply has no value
+     * @throws org.springframework.kafka.KafkaException if the record could not be published; the caller must not commit its offset
+     */
+    public boolean deadLetterIfUnreadable(ConsumerRecord<?, ?> record) {
+        DeserializationException cause = SerializationUtils.getExceptionFromHeader(record,
+                SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG_ACCESSOR);
+        if (cause == null) {
+            return false;
+        }
+        unreadableRecordRecoverer.accept(record, cause);
+        log.error("Unreadable record {}-{}@{} moved to dead-letter topic", record.topic(), record.partition(), record.offset());
+        return true;
+    }
+
+    private long delayMillis(RetryTier tier) {
+        return switch (tier) {
+            case FIRST -> firstDelayMillis;
+            case SECOND -> secondDelayMillis;
+            case THIRD -> thirdDelayMillis;
+        };
+    }
+
+    /**
+     * @param cause a processing failure, possibly wrapped
+     * @return true if the failure was caused by a database condition that may clear up by itself
+     */
+    static boolean isTransient(Throwable cause) {
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof TransientDataAccessException || t instanceof RecoverableDataAccessException
+                    || t instanceof DataAccessResourceFailureException
+                    || t instanceof SQLTransientException || t instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param headers record headers
+     * @return failed attempts recorded on the record, 0 if none
+     */
+    public static int attemptsOf(Headers headers) {
+        Header header = headers.lastHeader(ATTEMPTS_HEADER);
+        return header != null ? Integer.parseInt(new String(header.value(), StandardCharsets.UTF_8)) : 0;
+    }
+
+    /**
+     * @param headers record headers
+     * @return epoch millis before which the record must not be retried, 0 if none
+     */
+    public static long dueAtOf(Headers headers) {
+        Header header = headers.lastHeader(DUE_AT_HEADER);
+        return header != null ? Long.parseLong(new String(header.value(), StandardCharsets.UTF_8)) : 0L;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,42 @@
+package com.notifyah.notification.retry;
+
+import com.notifyah.notification.TopicNames;
+
+/**
+ * Retry stages of a failed notification event, in the order they are tried.
+ * The delay of each tier is configured by {@code notification.retry.*-delay-ms} (see {@link NotificationRetryPublisher}).
+ * An event that fails on the last tier goes to {@link TopicNames#COMMENT_CREATED_DLT}.
+ */
+public enum RetryTier {
+
+    FIRST(TopicNames.COMMENT_CREATED_RETRY_5S),
+    SECOND(TopicNames.COMMENT_CREATED_RETRY_30S),
+    THIRD(TopicNames.COMMENT_CREATED_RETRY_5M);
+
+    private static final RetryTier[] TIERS = values();
+
+    private final String topic;
+
+    RetryTier(String topic) {
+        this.topic = topic;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    /**
+     * @param failedAttempts number of processing attempts that failed so far (at least 1)
+     * @return the tier for the next attempt, or null if retries are exhausted
+     */
+    public static RetryTier afterFailures(int failedAttempts) {
+        return failedAttempts >= 1 && failedAttempts <= TIERS.length ? TIERS[failedAttempts - 1] : null;
+    }
+
+    /**
+     * @return the last and longest tier
+     */
+    public static RetryTier last() {
+        return TIERS[TIERS.length - 1];
+    }
+}
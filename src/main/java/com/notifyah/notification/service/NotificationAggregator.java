@@ -0,0 +1,345 @@
+package com.notifyah.notification.service;
+
+import com.notifyah.notification.dto.NotificationEvent;
+import com.notifyah.notification.dto.NotificationPushMessage;
+import com.notifyah.notification.entity.Notification;
+import com.notifyah.notification.entity.NotificationType;
+import com.notifyah.notification.repository.NotificationRepository;
+import com.notifyah.websocket.NotificationDispatcher;
+import com.notifyah.websocket.NotificationFrameEncoder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces bursts of notifications about the same entity ("Alice and 12 others liked your post").
+ *
+ * <p>Events of an aggregated type are grouped by (recipient, type, entityId). The first event of a group
+ * is saved and pushed as usual and opens the group; events arriving while it is open are only buffered
+ * in memory. Every {@code notification.aggregation.window-ms} each open group with buffered events is
+ * written with a single UPDATE of its actor count and actor sample and pushed once; a group that received
+ * nothing during a window is closed, so the next event starts a new notification.
+ *
+ * <p>An event absorbed inside the caller's insert transaction only reserves its place in the group; it is
+ * buffered once that transaction commits and dropped if it rolls back, so a batch replayed after a failed
+ * insert is not counted twice. A group with reservations outstanding is not closed.
+ *
+ * <p>If the recipient reads (or deletes) the notification while the group is open, the buffered events
+ * start a fresh unread notification instead. Buffered events of an instance that crashes are lost,
+ * which only understates the actor count of the already delivered notification.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationAggregator {
+
+    private static final int MAX_SAMPLE_SIZE = 10;
+
+    private final NotificationRepository notificationRepository;
+    private final UnreadCounterService unreadCounterService;
+    private final NotificationFrameEncoder frameEncoder;
+    private final NotificationDispatcher notificationDispatcher;
+    private final RecentInboxCache recentInboxCache;
+
+    @Value("${notification.aggregation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notification.aggregation.types:POST_LIKED,NEW_COMMENT}")
+    private String[] typeNames;
+
+    @Value("${notification.aggregation.sample-size:3}")
+    private int sampleSize;
+
+    private Set<NotificationType> types;
+
+    /**
+     * Open groups. Key: (recipient, type, entityId)
+     */
+    private final ConcurrentHashMap<GroupKey, Group> groups = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        types = EnumSet.noneOf(NotificationType.class);
+        for (String name : typeNames) {
+            types.add(NotificationType.valueOf(name.trim()));
+        }
+        sampleSize = Math.max(1, Math.min(sampleSize, MAX_SAMPLE_SIZE));
+        log.info("Notification aggregation {} for types {}", enabled ? "enabled" : "disabled", types);
+    }
+
+    /**
+     * Maps events to the notifications that have to be inserted.
+     * Events merged into an open group, or into an earlier notification of the same batch, produce no row.
+     * 
+     * @param events the events to process
+     * @param toEntity maps an event to a new, unsaved notification
+     * @return the notifications to insert, in event order
+     */
+    public List<Notification> collapse(List<NotificationEvent> events, Function<NotificationEvent, Notification> toEntity) {
+        List<Notification> result = new ArrayList<>(events.size());
+        Map<GroupKey, Notification> firstInBatch = new HashMap<>();
+        int merged = 0;
+
+        for (NotificationEvent event : events) {
+            Notification notification = toEntity.apply(event);
+            GroupKey key = keyOf(notification);
+            if (key == null) {
+                result.add(notification);
+                continue;
+            }
+
+            Notification first = firstInBatch.get(key);
+            if (first != null) {
+                first.setActorCount(first.getMergedCount() + 1);
+                first.setActorSample(join(withActor(first.getActorIds(), event.getSenderId())));
+                first.setContent(notification.getContent());
+                first.setRedirectUrl(notification.getRedirectUrl());
+                merged++;
+            } else if (absorb(key, event)) {
+                merged++;
+            } else {
+                firstInBatch.put(key, notification);
+                result.add(notification);
+            }
+        }
+
+        if (merged > 0) {
+            log.debug("Aggregated {} of {} events into existing notifications", merged, events.size());
+        }
+        return result;
+    }
+
+    /**
+     * Opens groups for newly saved notifications of aggregated types.
+     * 
+     * @param saved the saved notifications
+     */
+    public void open(List<Notification> saved) {
+        for (Notification notification : saved) {
+            GroupKey key = keyOf(notification);
+            if (key != null) {
+                groups.compute(key, (k, existing) ->
+                        existing != null && !existing.closed ? existing : new Group(notification));
+            }
+        }
+    }
+
+    /**
+     * Writes and pushes the buffered events of each open group, and closes idle groups.
+     */
+    @Scheduled(fixedDelayString = "${notification.aggregation.window-ms:5000}")
+    public void flush() {
+        int flushed = 0;
+        for (Map.Entry<GroupKey, Group> entry : groups.entrySet()) {
+            try {
+                if (flushGroup(entry.getKey(), entry.getValue())) {
+                    flushed++;
+                }
+            } catch (Exception e) {
+                log.warn("Failed to flush aggregated notification {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        if (flushed > 0) {
+            log.debug("Flushed {} aggregated notifications, {} groups open", flushed, groups.size());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    public int getOpenGroupCount() {
+        return groups.size();
+    }
+
+    private boolean absorb(GroupKey key, NotificationEvent event) {
+        Group group = groups.get(key);
+        if (group == null) {
+            return false;
+        }
+        synchronized (group) {
+            if (group.closed) {
+                return false;
+            }
+            group.reserved++;
+        }
+        afterCompletion(committed -> {
+            synchronized (group) {
+                group.reserved--;
+                if (committed) {
+                    group.add(event.getSenderId(), event.getContent(), event.getRedirectUrl());
+                }
+            }
+        });
+        return true;
+    }
+
+    private boolean flushGroup(GroupKey key, Group group) {
+        Snapshot snapshot;
+        synchronized (group) {
+            if (group.pending == 0) {
+                if (group.reserved > 0) {
+                    // Absorbed events whose transaction has not finished yet keep the group open
+                    return false;
+                }
+                group.closed = true;
+                groups.remove(key, group);
+                return false;
+            }
+            snapshot = group.drain();
+        }
+
+        String sample = join(snapshot.actorIds);
+        Long notificationId = snapshot.notificationId;
+        LocalDateTime createdAt = snapshot.createdAt;
+        int actorCount = snapshot.actorCount;
+
+        if (notificationRepository.mergeActors(notificationId, snapshot.merged, sample,
+                snapshot.content, snapshot.redirectUrl) == 0) {
+            // Read or deleted since the group was opened: the buffered events become a new notification
+            Notification saved = notificationRepository.save(Notification.builder()
+                    .recipientId(key.recipientId())
+                    .type(key.type())
+                    .entityId(key.entityId())
+                    .content(snapshot.content)
+                    .redirectUrl(snapshot.redirectUrl)
+                    .isRead(false)
+                    .actorCount(snapshot.merged)
+                    .actorSample(sample)
+                    .build());
+            unreadCounterService.increment(saved.getRecipientId(), saved.getType());
+            synchronized (group) {
+                group.rebind(saved.getId(), saved.getCreatedAt(), snapshot.merged);
+            }
+            notificationId = saved.getId();
+            createdAt = saved.getCreatedAt();
+            actorCount = snapshot.merged;
+        }
+        // The cached row (if any) no longer matches: merged in place, or superseded by a new row
+        recentInboxCache.invalidate(key.recipientId());
+
+        notificationDispatcher.dispatch(key.recipientId(), frameEncoder.encode(new NotificationPushMessage(
+                notificationId, key.type().name(), snapshot.content, snapshot.redirectUrl,
+                false, createdAt, actorCount, snapshot.actorIds)));
+        return true;
+    }
+
+    private GroupKey keyOf(Notification notification) {
+        if (!enabled || notification.getEntityId() == null || !types.contains(notification.getType())) {
+            return null;
+        }
+        return new GroupKey(notification.getRecipientId(), notification.getType(), notification.getEntityId());
+    }
+
+    private List<Long> withActor(List<Long> actorIds, Long actorId) {
+        Deque<Long> sample = new ArrayDeque<>(actorIds);
+        pushActor(sample, actorId);
+        return new ArrayList<>(sample);
+    }
+
+    private void pushActor(Deque<Long> sample, Long actorId) {
+        if (actorId == null) {
+            return;
+        }
+        sample.remove(actorId);
+        sample.addFirst(actorId);
+        while (sample.size() > sampleSize) {
+            sample.removeLast();
+        }
+    }
+
+    /**
+     * Runs the action once the surrounding transaction completed, with whether it committed;
+     * immediately (as committed) if there is none.
+     */
+    private static void afterCompletion(Consumer<Boolean> action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.accept(status == STATUS_COMMITTED);
+                }
+            });
+        } else {
+            action.accept(true);
+        }
+    }
+
+    private static String join(List<Long> actorIds) {
+        return actorIds.isEmpty() ? null : actorIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private record GroupKey(Long recipientId, NotificationType type, Long entityId) {
+    }
+
+    private record Snapshot(Long notificationId, LocalDateTime createdAt, int merged, int actorCount,
+                            List<Long> actorIds, String content, String redirectUrl) {
+    }
+
+    /**
+     * An open aggregated notification and the events buffered for it. Guarded by its own monitor.
+     */
+    private final class Group {
+        private Long notificationId;
+        private LocalDateTime createdAt;
+        private int actorCount;
+        private final Deque<Long> sample;
+        private String content;
+        private String redirectUrl;
+        private int pending;
+        private int reserved;
+        private boolean closed;
+
+        private Group(Notification notification) {
+            this.notificationId = notification.getId();
+            this.createdAt = notification.getCreatedAt();
+            this.actorCount = notification.getMergedCount();
+            this.sample = new ArrayDeque<>(notification.getActorIds());
+            this.content = notification.getContent();
+            this.redirectUrl = notification.getRedirectUrl();
+        }
+
+        private void add(Long actorId, String content, String redirectUrl) {
+            pushActor(sample, actorId);
+            this.content = content;
+            this.redirectUrl = redirectUrl;
+            actorCount++;
+            pending++;
+        }
+
+        private Snapshot drain() {
+            Snapshot snapshot = new Snapshot(notificationId, createdAt, pending, actorCount,
+                    new ArrayList<>(sample), content, redirectUrl);
+            pending = 0;
+            return snapshot;
+        }
+
+        private void rebind(Long notificationId, LocalDateTime createdAt, int actorCount) {
+            this.notificationId = notificationId;
+            this.createdAt = createdAt;
+            // Events absorbed while the new row was being inserted are still pending on top of it
+            this.actorCount = actorCount + pending;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.notifyah.notification.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.notifyah.common.exception.ApiException;
+import com.notifyah.notification.dto.BulkSendItemResult;
+import com.notifyah.notification.dto.BulkSendResponse;
+import com.notifyah.notification.dto.NotificationEvent;
+import com.notifyah.notification.dto.NotificationRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes notification requests submitted in bulk.
+ *
+ * <p>The body is parsed as a stream, either a JSON array or NDJSON (whitespace-separated objects),
+ * so the raw body is never held in memory. Valid items are handed to the throughput-tuned producer
+ * all at once and the acknowledgments are awaited together afterwards. Items still unacknowledged when
+ * {@code notification.bulk-send.ack-timeout-ms} expires may yet be delivered, so they are reported as pending
+ * with their event ID, under which they can be resubmitted without creating duplicates.
+ */
+@Service
+@Slf4j
+public class NotificationBulkSendService {
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private final NotificationEventPublisher notificationEventPublisher;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader requestReader;
+
+    @Value("${notification.bulk-send.max-items:10000}")
+    private int maxItems;
+
+    @Value("${notification.bulk-send.ack-timeout-ms:30000}")
+    private long ackTimeoutMillis;
+
+    public NotificationBulkSendService(NotificationEventPublisher notificationEventPublisher, ObjectMapper objectMapper) {
+        this.notificationEventPublisher = notificationEventPublisher;
+        this.objectMapper = objectMapper;
+        this.requestReader = objectMapper.readerFor(NotificationRequest.class);
+    }
+
+    /**
+     * Parses, validates and publishes the requests in a body.
+     * 
+     * @param body JSON array or NDJSON of {@link NotificationRequest}
+     * @param audienceAllowed whether the caller may address audiences (ADMIN / SUPER_ADMIN)
+     * @return per-item results in submission order
+     * @throws ApiException 400 if the body is not well-formed, 403 if an item addresses an audience
+     *                      the caller may not address, 413 if it holds more than the allowed items
+     */
+    public BulkSendResponse send(InputStream body, boolean audienceAllowed) {
+        List<NotificationRequest> requests = parse(body);
+        if (!audienceAllowed) {
+            // A permission problem rather than an invalid item, so nothing of the request is sent
+            for (int i = 0; i < requests.size(); i++) {
+                if (requests.get(i) != null && requests.get(i).hasAudience()) {
+                    throw new ApiException("Item " + i + ": audienceRole and audienceUserIds require the ADMIN role",
+                            HttpStatus.FORBIDDEN, "AUDIENCE_NOT_ALLOWED");
+                }
+            }
+        }
+
+        BulkSendItemResult[] results = new BulkSendItemResult[requests.size()];
+        List<NotificationEvent> events = new ArrayList<>(requests.size());
+        List<Integer> eventIndexes = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            String problem = validate(requests.get(i));
+            if (problem != null) {
+                results[i] = new BulkSendItemResult(i, BulkSendItemResult.Status.REJECTED,
+                        requests.get(i) != null ? requests.get(i).getEventId() : null, null, null, problem);
+            } else {
+                events.add(requests.get(i).toEvent());
+                eventIndexes.add(i);
+            }
+        }
+
+        List<CompletableFuture<SendResult<String, NotificationEvent>>> futures = notificationEventPublisher.publishAll(events);
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(ackTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
+            log.warn("Bulk send: not all of {} records were acknowledged within {} ms", futures.size(), ackTimeoutMillis);
+        } catch (Exception e) {
+            // Individual failures are reported per item below
+        }
+
+        int accepted = 0;
+        int failed = 0;
+        int pending = 0;
+        for (int j = 0; j < futures.size(); j++) {
+            int index = eventIndexes.get(j);
+            UUID eventId = events.get(j).getEventId();
+            CompletableFuture<SendResult<String, NotificationEvent>> future = futures.get(j);
+            if (!future.isDone()) {
+                // Still in the producer's buffer or in flight: it may yet be delivered
+                results[index] = new BulkSendItemResult(index, BulkSendItemResult.Status.PENDING, eventId, null, null,
+                        "Not acknowledged in time");
+                pending++;
+            } else if (!future.isCompletedExceptionally()) {
+                RecordMetadata metadata = future.join().getRecordMetadata();
+                results[index] = new BulkSendItemResult(index, BulkSendItemResult.Status.ACCEPTED, eventId,
+                        metadata.partition(), metadata.offset(), null);
+                accepted++;
+            } else {
+                results[index] = new BulkSendItemResult(index, BulkSendItemResult.Status.FAILED, eventId, null, null,
+                        rootMessage(future));
+                failed++;
+            }
+        }
+
+        return new BulkSendResponse(accepted, requests.size() - events.size(), failed, pending, List.of(results));
+    }
+
+    private List<NotificationRequest> parse(InputStream body) {
+        List<NotificationRequest> requests = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token != null && token != JsonToken.END_ARRAY) {
+                if (requests.size() >= maxItems) {
+                    throw new ApiException("At most " + maxItems + " notifications per request",
+                            HttpStatus.PAYLOAD_TOO_LARGE, "BULK_SEND_TOO_LARGE");
+                }
+                requests.add(requestReader.readValue(parser));
+                token = parser.nextToken();
+            }
+        } catch (IOException e) {
+            throw new ApiException("Malformed bulk send body at item " + requests.size() + ": " + e.getMessage(),
+                    HttpStatus.BAD_REQUEST, "BULK_SEND_MALFORMED");
+        }
+        return requests;
+    }
+
+    private static String validate(NotificationRequest request) {
+        if (request == null) {
+            return "Item must be an object";
+        }
+        if (request.hasNullAudienceUserId()) {
+            return "audienceUserIds must not contain null";
+        }
+        if (request.getEventType() == null || request.getEventType().isBlank()) {
+            return "eventType is required";
+        }
+        if (request.getContent() == null || request.getContent().isBlank()) {
+            return "content is required";
+        }
+        if (request.getTargetUserId() == null && request.getAudienceRole() == null
+                && (request.getAudienceUserIds() == null || request.getAudienceUserIds().isEmpty())) {
+            return "targetUserId or an audience is required";
+        }
+        return null;
+    }
+
+    private static String rootMessage(CompletableFuture<?> future) {
+        try {
+            future.join();
+            return null;
+        } catch (Exception e) {
+            Throwable cause = e;
+            while (cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            return cause.getMessage();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.notifyah.notification.service;
+
+import com.notifyah.notification.dto.NotificationEvent;
+import com.notifyah.notification.repository.NotificationEventReceiptRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Drops redelivered events (rebalances, producer retries, re-driven dead letters) before they cost
+ * a notification row or a WebSocket frame.
+ *
+ * <p>Two layers: a bounded in-memory index of recently ingested (eventId, recipient) pairs answers
+ * the common case without touching the database, and the primary key of
+ * {@code notification_event_receipts} decides everything else, including redeliveries to another
+ * instance. Receipts are claimed in the same transaction as the notification insert, and pairs enter
+ * the index only after that transaction committed, so a failed insert never marks an event as seen.
+ * Events without an event ID (older producers) are not deduplicated.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationDeduplicator {
+
+    private static final int PURGE_CHUNK = 10_000;
+
+    private final NotificationEventReceiptRepository receiptRepository;
+
+    @Value("${notification.dedup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notification.dedup.max-entries:200000}")
+    private int maxEntries;
+
+    @Value("${notification.dedup.receipt-retention-hours:72}")
+    private long receiptRetentionHours;
+
+    /**
+     * Recently ingested pairs, least recently ingested first. Guarded by its own monitor.
+     */
+    private final LinkedHashMap<Key, Boolean> recent = new LinkedHashMap<>(1024, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Boolean> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    /**
+     * Removes events found in the in-memory index and repeats within the list. No database access.
+     * 
+     * @param events single-recipient events
+     * @return the events that may be new, in order
+     */
+    public List<NotificationEvent> dropSeen(List<NotificationEvent> events) {
+        if (!enabled) {
+            return events;
+        }
+        List<NotificationEvent> result = new ArrayList<>(events.size());
+        Set<Key> inBatch = new HashSet<>();
+        int dropped = 0;
+        synchronized (recent) {
+            for (NotificationEvent event : events) {
+                Key key = keyOf(event.getEventId(), event.getTargetUserId());
+                if (key != null && (recent.containsKey(key) || !inBatch.add(key))) {
+                    dropped++;
+                } else {
+                    result.add(event);
+                }
+            }
+        }
+        if (dropped > 0) {
+            log.info("Dropped {} duplicate notification events from the in-memory index", dropped);
+        }
+        return result;
+    }
+
+    /**
+     * Claims receipts for single-recipient events. Must be called inside the transaction that inserts their notifications.
+     * 
+     * @param events single-recipient events, free of repeats (see {@link #dropSeen(List)})
+     * @return the events not ingested before, in order
+     */
+    public List<NotificationEvent> claim(List<NotificationEvent> events) {
+        if (!enabled) {
+            return events;
+        }
+        StringBuilder eventIds = new StringBuilder();
+        StringBuilder recipientIds = new StringBuilder();
+        for (NotificationEvent event : events) {
+            if (keyOf(event.getEventId(), event.getTargetUserId()) != null) {
+                append(eventIds, recipientIds, event.getEventId(), event.getTargetUserId());
+            }
+        }
+        if (eventIds.isEmpty()) {
+            return events;
+        }
+
+        Set<String> claimed = new HashSet<>(receiptRepository.claim(eventIds.toString(), recipientIds.toString()));
+        List<NotificationEvent> result = new ArrayList<>(events.size());
+        List<Key> ingested = new ArrayList<>(events.size());
+        for (NotificationEvent event : events) {
+            Key key = keyOf(event.getEventId(), event.getTargetUserId());
+            if (key == null) {
+                result.add(event);
+            } else if (claimed.contains(event.getEventId() + ":" + event.getTargetUserId())) {
+                result.add(event);
+                ingested.add(key);
+            } else {
+                // Already ingested, possibly by another instance: remember it to skip further copies cheaply
+                ingested.add(key);
+            }
+        }
+        if (result.size() < events.size()) {
+            log.info("Dropped {} duplicate notification events by receipt", events.size() - result.size());
+        }
+        rememberAfterCommit(ingested);
+        return result;
+    }
+
+    /**
+     * Claims receipts for a chunk of fan-out recipients of one event. Must be called inside the transaction
+     * that inserts their notifications. Fan-out pairs do not enter the in-memory index.
+     * 
+     * @param eventId the event ID, may be null
+     * @param recipientIds the recipients of the chunk
+     * @return the recipients that did not receive this event before
+     */
+    public List<Long> claimRecipients(UUID eventId, List<Long> recipientIds) {
+        if (!enabled || eventId == null || recipientIds.isEmpty()) {
+            return recipientIds;
+        }
+        StringBuilder eventIds = new StringBuilder();
+        StringBuilder recipients = new StringBuilder();
+        for (Long recipientId : recipientIds) {
+            append(eventIds, recipients, eventId, recipientId);
+        }
+        Set<String> claimed = new HashSet<>(receiptRepository.claim(eventIds.toString(), recipients.toString()));
+        List<Long> result = new ArrayList<>(recipientIds.size());
+        for (Long recipientId : recipientIds) {
+            if (claimed.contains(eventId + ":" + recipientId)) {
+                result.add(recipientId);
+            }
+        }
+        if (result.size() < recipientIds.size()) {
+            log.info("Skipped {} fan-out recipients that already received event {}", recipientIds.size() - result.size(), eventId);
+        }
+        return result;
+    }
+
+    /**
+     * Deletes receipts older than the dedup window; redeliveries older than that are not expected.
+     */
+    @Scheduled(fixedDelayString = "${notification.dedup.purge-interval-ms:600000}",
+            initialDelayString = "${notification.dedup.purge-interval-ms:600000}")
+    public void purgeReceipts() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(receiptRetentionHours);
+        long purged = 0;
+        int deleted;
+        do {
+            deleted = receiptRepository.deleteOlderThan(cutoff, PURGE_CHUNK);
+            purged += deleted;
+        } while (deleted == PURGE_CHUNK);
+        if (purged > 0) {
+            log.info("Purged {} notification event receipts older than {}", purged, cutoff);
+        }
+    }
+
+    public int getIndexSize() {
+        synchronized (recent) {
+            return recent.size();
+        }
+    }
+
+    private void rememberAfterCommit(Collection<Key> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        Runnable remember = () -> {
+            synchronized (recent) {
+                for (Key key : keys) {
+                    recent.put(key, Boolean.TRUE);
+                }
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember.run();
+                }
+            });
+        } else {
+            remember.run();
+        }
+    }
+
+    private static void append(StringBuilder eventIds, StringBuilder recipientIds, UUID eventId, Long recipientId) {
+        if (!eventIds.isEmpty()) {
+            eventIds.append(',');
+            recipientIds.append(',');
+        }
+        eventIds.append(eventId);
+        recipientIds.append(recipientId);
+    }
+
+    private static Key keyOf(UUID eventId, Long recipientId) {
+        return eventId != null && recipientId != null
+                ? new Key(eventId.getMostSignificantBits(), eventId.getLeastSignificantBits(), recipientId)
+                : null;
+    }
+
+    private record Key(long eventIdHigh, long eventIdLow, long recipientId) {
+    }
+}
@@ -0,0 +1,182 @@
+package com.notifyah.notification.service;
+
+import com.notifyah.notification.dto.NotificationEvent;
+import com.notifyah.notification.lane.NotificationLaneRouter;
+import com.notifyah.notification.spool.BrokerCircuitBreaker;
+import com.notifyah.notification.spool.EventSpool;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.errors.BrokerNotAvailableException;
+import org.apache.kafka.common.errors.RetriableException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single entry point for publishing notification events to Kafka.
+ *
+ * <p>Records are keyed by the recipient ID, so all events of one user land on the same partition
+ * and are consumed in order by one listener thread, while different users are spread over partitions
+ * and processed in parallel. Audience events have no single recipient and are sent without a key.
+ * Each event goes to the topic of its priority lane (see {@link NotificationLaneRouter}).
+ *
+ * <p>{@link #submit(NotificationEvent)} falls back to the local {@link EventSpool} when Kafka is failing,
+ * so API requests neither block on the producer nor lose events while the broker is unavailable.
+ * Only failures of the broker or the connection to it count towards the circuit and are spooled; an event that fails
+ * by itself (e.g. cannot be serialized) would fail again on replay, so its future is failed instead.
+ */
+@Service
+@Slf4j
+public class NotificationEventPublisher {
+
+    private final KafkaTemplate<String, NotificationEvent> notificationEventKafkaTemplate;
+    private final KafkaTemplate<String, NotificationEvent> bulkNotificationEventKafkaTemplate;
+    private final EventSpool eventSpool;
+    private final BrokerCircuitBreaker circuitBreaker;
+    private final NotificationLaneRouter laneRouter;
+
+    public NotificationEventPublisher(
+            KafkaTemplate<String, NotificationEvent> notificationEventKafkaTemplate,
+            @Qualifier("bulkNotificationEventKafkaTemplate") KafkaTemplate<String, NotificationEvent> bulkNotificationEventKafkaTemplate,
+            EventSpool eventSpool,
+            BrokerCircuitBreaker circuitBreaker,
+            NotificationLaneRouter laneRouter) {
+        this.notificationEventKafkaTemplate = notificationEventKafkaTemplate;
+        this.bulkNotificationEventKafkaTemplate = bulkNotificationEventKafkaTemplate;
+        this.eventSpool = eventSpool;
+        this.circuitBreaker = circuitBreaker;
+        this.laneRouter = laneRouter;
+    }
+
+    /**
+     * Publishes an event, or spools it locally if Kafka is unavailable.
+     * While the spool still holds events, new ones are spooled behind them to keep each recipient's order.
+     * 
+     * @param event the event to publish
+     * @return future completed with the send result, or with null once the event was spooled instead;
+     *         completed exceptionally if the event itself could not be sent, or could neither be sent nor spooled
+     */
+    public CompletableFuture<SendResult<String, NotificationEvent>> submit(NotificationEvent event) {
+        assignEventId(event);
+        if (!eventSpool.isEnabled()) {
+            return publish(event);
+        }
+        if (eventSpool.size() > 0 || !circuitBreaker.allowRequest()) {
+            return spool(event, null);
+        }
+
+        CompletableFuture<SendResult<String, NotificationEvent>> future;
+        try {
+            future = publish(event);
+        } catch (Exception e) {
+            // e.g. metadata unavailable within max.block.ms, or a serialization error
+            return onFailure(event, e);
+        }
+        return future.handle((result, ex) -> {
+            if (ex == null) {
+                circuitBreaker.recordSuccess();
+                return CompletableFuture.completedFuture(result);
+            }
+            return onFailure(event, ex);
+        }).thenCompose(next -> next);
+    }
+
+    private CompletableFuture<SendResult<String, NotificationEvent>> onFailure(NotificationEvent event, Throwable cause) {
+        if (!isBrokerFailure(cause)) {
+            circuitBreaker.recordNonBrokerFailure();
+            log.error("Notification event could not be sent: {}", event, cause);
+            return CompletableFuture.failedFuture(cause);
+        }
+        circuitBreaker.recordFailure();
+        return spool(event, cause);
+    }
+
+    /**
+     * @param failure a send failure, possibly wrapped
+     * @return true if the broker or the connection to it failed (unreachable, timed out, leader moved, ...),
+     *         false if the failure was caused by the event itself
+     */
+    public static boolean isBrokerFailure(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof RetriableException || t instanceof BrokerNotAvailableException
+                    || t instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CompletableFuture<SendResult<String, NotificationEvent>> spool(NotificationEvent event, Throwable cause) {
+        try {
+            eventSpool.append(event);
+            if (cause != null) {
+                log.warn("Kafka send failed, spooled notification event locally: {}", cause.getMessage());
+            }
+            return CompletableFuture.completedFuture(null);
+        } catch (Exception e) {
+            log.error("Notification event could neither be sent nor spooled: {}", event, e);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Publishes an event to the topic of its lane.
+     * 
+     * @param event the event to publish
+     * @return future completed when the broker acknowledged the record
+     */
+    public CompletableFuture<SendResult<String, NotificationEvent>> publish(NotificationEvent event) {
+        assignEventId(event);
+        return notificationEventKafkaTemplate.send(laneRouter.topicOf(event), keyOf(event), event);
+    }
+
+    /**
+     * Publishes many events through the throughput-tuned producer without waiting between records;
+     * the producer batches and compresses them per partition and sends each batch when it is full or its linger
+     * time expires. The producer is shared by concurrent requests, so it is not flushed here; callers wait on
+     * the returned futures instead.
+     * 
+     * @param events the events to publish
+     * @return one future per event, in order
+     */
+    public List<CompletableFuture<SendResult<String, NotificationEvent>>> publishAll(List<NotificationEvent> events) {
+        List<CompletableFuture<SendResult<String, NotificationEvent>>> futures = new ArrayList<>(events.size());
+        for (NotificationEvent event : events) {
+            assignEventId(event);
+            try {
+                futures.add(bulkNotificationEventKafkaTemplate.send(laneRouter.topicOf(event), keyOf(event), event));
+            } catch (Exception e) {
+                // e.g. buffer exhausted or serialization failure: fail this record only
+                futures.add(CompletableFuture.failedFuture(e));
+            }
+        }
+        log.debug("Submitted {} notification events through the bulk producer", events.size());
+        return futures;
+    }
+
+    /**
+     * Gives an event its stable ID before it first leaves this process, so every redelivery carries the same one.
+     */
+    private static void assignEventId(NotificationEvent event) {
+        if (event.getEventId() == null) {
+            event.setEventId(UUID.randomUUID());
+        }
+    }
+
+    /**
+     * @param event the event
+     * @return partition key of the event, or null for audience events
+     */
+    public static String keyOf(NotificationEvent event) {
+        if (event.isAudienceEvent() || event.getTargetUserId() == null) {
+            return null;
+        }
+        return String.valueOf(event.getTargetUserId());
+    }
+}
@@ -0,0 +1,158 @@
+package com.notifyah.notification.service;
+
+import com.notifyah.notification.dto.NotificationEvent;
+import com.notifyah.notification.dto.NotificationPushMessage;
+import com.notifyah.notification.entity.Notification;
+import com.notifyah.notification.entity.NotificationType;
+import com.notifyah.notification.repository.NotificationRepository;
+import com.notifyah.user.entity.UserRole;
+import com.notifyah.user.repository.UserRepository;
+import com.notifyah.websocket.NotificationDispatcher;
+import com.notifyah.websocket.NotificationFrameEncoder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Expands audience events (a role or an explicit ID list) into per-user notifications.
+ *
+ * <p>Recipients are streamed in fixed-size chunks: role audiences through keyset pages of user IDs,
+ * explicit lists by slicing. Each chunk is one bulk insert, one counter update and one dispatch
+ * sharing a single serialized frame, and nothing from a chunk is retained afterwards,
+ * so memory stays flat for audiences in the millions.
+ *
+ * <p>Each chunk commits on its own together with its receipts, so an event redelivered after a partial
+ * fan-out only delivers to the recipients that were not reached yet.
+ *
+ * <p>Large audiences take a while; consumers handling them need a {@code max.poll.interval.ms}
+ * large enough for the biggest expected fan-out ({@code notification.kafka.max-poll-interval-ms}).
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationFanOutService {
+
+    private final UserRepository userRepository;
+    private final NotificationRepository notificationRepository;
+    private final UnreadCounterService unreadCounterService;
+    private final NotificationFrameEncoder frameEncoder;
+    private final NotificationDispatcher notificationDispatcher;
+    private final NotificationDeduplicator notificationDeduplicator;
+    private final TransactionTemplate transactionTemplate;
+    private final RecentInboxCache recentInboxCache;
+
+    @Value("${notification.fan-out.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Creates and pushes one notification per audience member.
+     * 
+     * @param event audience event (see {@link NotificationEvent#isAudienceEvent()})
+     * @param type the resolved notification type
+     * @return number of notifications created
+     */
+    public long fanOut(NotificationEvent event, NotificationType type) {
+        long startNanos = System.nanoTime();
+        FanOut fanOut = new FanOut(event, type, LocalDateTime.now());
+        long created = 0;
+
+        if (event.getAudienceUserIds() != null && !event.getAudienceUserIds().isEmpty()) {
+            // De-duplicate while keeping order; the list is already in memory as part of the event
+            List<Long> recipients = new ArrayList<>(new LinkedHashSet<>(event.getAudienceUserIds()));
+            for (int from = 0; from < recipients.size(); from += chunkSize) {
+                created += deliverChunk(fanOut, recipients.subList(from, Math.min(from + chunkSize, recipients.size())));
+            }
+        }
+
+        if (event.getAudienceRole() != null) {
+            UserRole role;
+            try {
+                role = UserRole.valueOf(event.getAudienceRole());
+            } catch (IllegalArgumentException e) {
+                log.warn("Unknown audience role: {}. Skipping fan-out", event.getAudienceRole());
+                return created;
+            }
+
+            long cursor = 0L;
+            while (true) {
+                List<Long> recipients = userRepository.findActiveUserIdsByRoleAfter(role, cursor, PageRequest.of(0, chunkSize));
+                if (recipients.isEmpty()) {
+                    break;
+                }
+                created += deliverChunk(fanOut, recipients);
+                cursor = recipients.get(recipients.size() - 1);
+                if (recipients.size() < chunkSize) {
+                    break;
+                }
+            }
+        }
+
+        log.info("Fanned out {} event to {} recipients in {} ms",
+                type, created, (System.nanoTime() - startNanos) / 1_000_000);
+        return created;
+    }
+
+    private int deliverChunk(FanOut fanOut, List<Long> recipients) {
+        // Receipts, rows and counter increments commit together, so a redelivered event skips delivered chunks
+        List<Notification> saved = transactionTemplate.execute(status -> {
+            List<Long> newRecipients = notificationDeduplicator.claimRecipients(fanOut.event.getEventId(), recipients);
+            if (newRecipients.isEmpty()) {
+                return List.<Notification>of();
+            }
+            List<Notification> notifications = new ArrayList<>(newRecipients.size());
+            for (Long recipientId : newRecipients) {
+                notifications.add(Notification.builder()
+                        .recipientId(recipientId)
+                        .type(fanOut.type)
+                        .content(fanOut.event.getContent())
+                        .redirectUrl(fanOut.event.getRedirectUrl())
+                        .entityId(fanOut.event.getEntityId())
+                        .isRead(false)
+                        .createdAt(fanOut.createdAt)
+                        .build());
+            }
+            List<Notification> inserted = notificationRepository.saveAll(notifications);
+            unreadCounterService.incrementAll(newRecipients, fanOut.type);
+            return inserted;
+        });
+        if (saved.isEmpty()) {
+            return 0;
+        }
+        recentInboxCache.added(saved);
+
+        try {
+            notificationDispatcher.dispatch(saved, Notification::getRecipientId,
+                    notification -> fanOut.frame.forId(notification.getId()));
+        } catch (Exception e) {
+            log.warn("Failed to dispatch fan-out chunk of {} notifications: {}", saved.size(), e.getMessage());
+            // Don't rethrow - WebSocket delivery failure shouldn't affect DB save
+        }
+        return saved.size();
+    }
+
+    /**
+     * State shared by all chunks of one fan-out, including the frame serialized once.
+     */
+    private final class FanOut {
+        private final NotificationEvent event;
+        private final NotificationType type;
+        private final LocalDateTime createdAt;
+        private final NotificationFrameEncoder.SharedFrame frame;
+
+        private FanOut(NotificationEvent event, NotificationType type, LocalDateTime createdAt) {
+            this.event = event;
+            this.type = type;
+            this.createdAt = createdAt;
+            this.frame = frameEncoder.encodeShared(new NotificationPushMessage(
+                    null, type.name(), event.getContent(), event.getRedirectUrl(), false, createdAt, 1, List.of()));
+        }
+    }
+}
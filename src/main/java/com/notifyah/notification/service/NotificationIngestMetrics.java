@@ -0,0 +1,115 @@
+package com.notifyah.notification.service;
+
+import com.notifyah.notification.lane.NotificationLane;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Smoothed latency of notification inserts per {@link NotificationLane}, sampled by {@link NotificationService}
+ * and read by the consumer backpressure controller. Failed inserts count with the time until they failed,
+ * so a database that times out looks slow rather than idle.
+ *
+ * <p>Lanes poll very different batch sizes, so each lane is averaged on its own and the batch size is
+ * averaged alongside the latency: a 1000-row bulk insert is not slow just because it takes longer
+ * than a 50-row one.
+ */
+@Component
+public class NotificationIngestMetrics {
+
+    /**
+     * Weight of the newest sample in the moving average.
+     */
+    private static final double ALPHA = 0.3;
+
+    private final Map<NotificationLane, LaneStats> lanes = new EnumMap<>(NotificationLane.class);
+
+    public NotificationIngestMetrics() {
+        for (NotificationLane lane : NotificationLane.values()) {
+            lanes.put(lane, new LaneStats());
+        }
+    }
+
+    /**
+     * Record one insert (a single row or a whole batch).
+     *
+     * @param lane the lane the events were consumed from
+     * @param elapsedNanos time the insert took
+     * @param rows number of events in the insert
+     */
+    public void recordInsert(NotificationLane lane, long elapsedNanos, int rows) {
+        LaneStats stats = lanes.get(lane);
+        synchronized (stats) {
+            double millis = elapsedNanos / 1_000_000.0;
+            double size = Math.max(rows, 1);
+            if (stats.latencyMillis < 0) {
+                stats.latencyMillis = millis;
+                stats.rows = size;
+            } else {
+                stats.latencyMillis = ALPHA * millis + (1 - ALPHA) * stats.latencyMillis;
+                stats.rows = ALPHA * size + (1 - ALPHA) * stats.rows;
+            }
+            stats.samples++;
+        }
+    }
+
+    /**
+     * @param lane the lane
+     * @return exponentially weighted insert latency in milliseconds, or -1 if nothing was inserted since the last reset
+     */
+    public double getInsertLatencyMillis(NotificationLane lane) {
+        LaneStats stats = lanes.get(lane);
+        synchronized (stats) {
+            return stats.latencyMillis;
+        }
+    }
+
+    /**
+     * Smoothed cost of one row, after subtracting the fixed cost of a statement round trip,
+     * so small batches do not look slow because of their per-insert overhead.
+     *
+     * @param lane the lane
+     * @param overheadMillis fixed cost allowed per insert regardless of its size
+     * @return microseconds per row, or -1 if nothing was inserted since the last reset
+     */
+    public double getRowLatencyMicros(NotificationLane lane, double overheadMillis) {
+        LaneStats stats = lanes.get(lane);
+        synchronized (stats) {
+            if (stats.latencyMillis < 0) {
+                return -1;
+            }
+            return Math.max(0, stats.latencyMillis - overheadMillis) * 1000 / stats.rows;
+        }
+    }
+
+    /**
+     * @param lane the lane
+     * @return number of inserts recorded for the lane since startup
+     */
+    public long getSamples(NotificationLane lane) {
+        LaneStats stats = lanes.get(lane);
+        synchronized (stats) {
+            return stats.samples;
+        }
+    }
+
+    /**
+     * Forget a lane's average, e.g. after its consumption was paused and old samples no longer describe the database.
+     *
+     * @param lane the lane
+     */
+    public void reset(NotificationLane lane) {
+        LaneStats stats = lanes.get(lane);
+        synchronized (stats) {
+            stats.latencyMillis = -1;
+            stats.rows = 0;
+        }
+    }
+
+    private static final class LaneStats {
+        private double latencyMillis = -1;
+        private double rows;
+        private long samples;
+    }
+}
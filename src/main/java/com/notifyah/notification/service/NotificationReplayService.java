@@ -0,0 +1,84 @@
+package com.notifyah.notification.service;
+
+import com.notifyah.notification.dto.NotificationPushMessage;
+import com.notifyah.notification.dto.NotificationRow;
+import com.notifyah.notification.entity.NotificationReadState;
+import com.notifyah.notification.repository.NotificationReadStateRepository;
+import com.notifyah.notification.repository.NotificationRepository;
+import com.notifyah.websocket.ControlFrames;
+import com.notifyah.websocket.NotificationFrameEncoder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.socket.TextMessage;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Replays notifications a client missed while disconnected.
+ * Reads only rows newer than the client's last-seen ID, in small keyset chunks,
+ * so a reconnect never re-downloads the whole inbox through the list endpoint.
+ * Rows are read as {@link NotificationRow} projections and encoded without loading entities.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationReplayService {
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationFrameEncoder frameEncoder;
+    private final NotificationReadStateRepository readStateRepository;
+
+    @Value("${websocket.replay.max-notifications:200}")
+    private int maxNotifications;
+
+    @Value("${websocket.replay.chunk-size:50}")
+    private int chunkSize;
+
+    /**
+     * Streams notifications newer than {@code lastSeenId} to the sink, oldest first.
+     * If more were missed than the replay limit, a resync frame follows the replayed ones.
+     * 
+     * @param userId the recipient user ID
+     * @param lastSeenId the newest notification ID the client has already seen
+     * @param sink accepts frames; returning false stops the replay (e.g. session closed)
+     * @return number of notifications replayed
+     */
+    @Transactional(readOnly = true)
+    public int replay(Long userId, long lastSeenId, Predicate<TextMessage> sink) {
+        long cursor = lastSeenId;
+        int replayed = 0;
+        NotificationReadState readState = readStateRepository.findById(userId)
+                .orElseGet(() -> NotificationReadState.empty(userId));
+
+        while (replayed < maxNotifications) {
+            int requested = Math.min(chunkSize, maxNotifications - replayed);
+            List<NotificationRow> chunk = notificationRepository
+                    .findRowsAfter(userId, cursor, Limit.of(requested));
+
+            for (NotificationRow row : chunk) {
+                if (!sink.test(frameEncoder.encode(NotificationPushMessage.fromRow(row, readState)))) {
+                    return replayed;
+                }
+                cursor = row.id();
+                replayed++;
+            }
+
+            if (chunk.size() < requested) {
+                log.debug("Replayed {} missed notifications to user {} after ID {}", replayed, userId, lastSeenId);
+                return replayed;
+            }
+        }
+
+        if (notificationRepository.existsByRecipientIdAndIdGreaterThan(userId, cursor)) {
+            log.info("User {} missed more than {} notifications after ID {}, requesting resync",
+                    userId, maxNotifications, lastSeenId);
+            sink.test(ControlFrames.RESYNC_REPLAY_LIMIT);
+        }
+        return replayed;
+    }
+}
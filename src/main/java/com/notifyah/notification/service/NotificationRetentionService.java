@@ -0,0 +1,187 @@
+package com.notifyah.notification.service;
+
+import com.notifyah.notification.entity.NotificationType;
+import com.notifyah.notification.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Maintains the monthly partitions of the notifications table (see {@code V2__partition_notifications.sql}).
+ *
+ * <p>Partitions are created {@code notification.retention.premake-months} ahead, at startup and on every
+ * run, since inserts into a month without a partition fail. Startup fails, and every later run logs an error,
+ * while the existing partitions end less than {@code notification.retention.min-headroom-months} after the
+ * current month, so a failing partition job surfaces long before inserts do. Expired notifications are removed by dropping
+ * whole partitions older than {@code notification.retention.retention-months} rather than with row DELETEs;
+ * their unread rows are subtracted from the stored unread counters in the same transaction.
+ *
+ * <p>Optionally each user keeps at most {@code notification.retention.max-per-user} notifications.
+ * Only users that received notifications since the previous run can have grown past the cap, so the
+ * cap is enforced for those users only, in chunks, oldest notifications first.
+ *
+ * <p>Each run also checks the notifications of the last {@code cap-window-hours} for duplicate IDs, which the
+ * {@code (id, created_at)} primary key cannot reject (see {@link com.notifyah.notification.entity.Notification#getId()}).
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationRetentionService {
+
+    private final NotificationRepository notificationRepository;
+    private final UnreadCounterService unreadCounterService;
+    private final RecentInboxCache recentInboxCache;
+
+    @Value("${notification.retention.premake-months:3}")
+    private int premakeMonths;
+
+    @Value("${notification.retention.min-headroom-months:1}")
+    private int minHeadroomMonths;
+
+    @Value("${notification.retention.retention-months:12}")
+    private int retentionMonths;
+
+    @Value("${notification.retention.max-per-user:0}")
+    private int maxPerUser;
+
+    @Value("${notification.retention.cap-window-hours:25}")
+    private long capWindowHours;
+
+    @Value("${notification.retention.cap-batch-users:500}")
+    private int capBatchUsers;
+
+    @Value("${notification.retention.cap-chunk-size:1000}")
+    private int capChunkSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        ensurePartitions();
+        if (!hasPartitionHeadroom()) {
+            throw new IllegalStateException("Notification partitions end before "
+                    + YearMonth.now().plusMonths(minHeadroomMonths) + "; check notifications_ensure_partitions");
+        }
+    }
+
+    /**
+     * Creates upcoming partitions, drops expired ones and enforces the per-user cap.
+     */
+    @Scheduled(cron = "${notification.retention.cron:0 30 3 * * *}")
+    public void run() {
+        try {
+            ensurePartitions();
+        } catch (Exception e) {
+            log.error("Failed to create notification partitions", e);
+        }
+        if (!hasPartitionHeadroom()) {
+            log.error("Notification partitions end before {}; inserts fail once they run out",
+                    YearMonth.now().plusMonths(minHeadroomMonths));
+        }
+        dropExpiredPartitions();
+        capPerUser();
+        checkUniqueIds();
+    }
+
+    /**
+     * Creates the partitions for the current month and the configured number of months ahead.
+     */
+    public void ensurePartitions() {
+        LocalDate today = LocalDate.now();
+        int created = notificationRepository.ensurePartitions(today, today.plusMonths(premakeMonths));
+        if (created > 0) {
+            log.info("Created {} notification partitions up to {}", created, today.plusMonths(premakeMonths));
+        }
+    }
+
+    /**
+     * @return whether partitions exist up to at least {@code min-headroom-months} after the current month
+     */
+    public boolean hasPartitionHeadroom() {
+        Integer last = notificationRepository.findLastPartitionMonth();
+        return last != null
+                && !YearMonth.of(last / 100, last % 100).isBefore(YearMonth.now().plusMonths(minHeadroomMonths));
+    }
+
+    /**
+     * Reports notification IDs stored more than once within the recent window.
+     */
+    public void checkUniqueIds() {
+        List<Long> duplicates = notificationRepository.findDuplicateIdsSince(
+                LocalDateTime.now().minusHours(capWindowHours), 10);
+        if (!duplicates.isEmpty()) {
+            log.error("Duplicate notification IDs {}: two instances share a node ID or a clock went backwards",
+                    duplicates);
+        }
+    }
+
+    /**
+     * Drops the partitions whose whole month is older than the retention period.
+     */
+    public void dropExpiredPartitions() {
+        if (retentionMonths <= 0) {
+            return;
+        }
+        LocalDate cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths);
+        List<String> dropped = notificationRepository.dropPartitionsBefore(cutoff);
+        if (!dropped.isEmpty()) {
+            log.info("Dropped notification partitions {} (retention cutoff {})", dropped, cutoff);
+        }
+    }
+
+    /**
+     * Deletes the notifications of recently active users beyond their newest {@code max-per-user}.
+     */
+    public void capPerUser() {
+        if (maxPerUser <= 0) {
+            return;
+        }
+        LocalDateTime since = LocalDateTime.now().minusHours(capWindowHours);
+        long after = 0;
+        long users = 0;
+        long deleted = 0;
+        List<Long> recipients;
+        do {
+            recipients = notificationRepository.findRecipientsSince(since, after, capBatchUsers);
+            for (Long recipientId : recipients) {
+                try {
+                    deleted += capUser(recipientId);
+                } catch (Exception e) {
+                    log.warn("Failed to cap notifications of user {}: {}", recipientId, e.getMessage());
+                }
+                after = recipientId;
+            }
+            users += recipients.size();
+        } while (recipients.size() == capBatchUsers);
+
+        if (deleted > 0) {
+            log.info("Deleted {} notifications beyond the newest {} of {} users", deleted, maxPerUser, users);
+        }
+    }
+
+    private long capUser(Long recipientId) {
+        long deleted = 0;
+        long chunk;
+        do {
+            chunk = 0;
+            for (Object[] row : notificationRepository.deleteBeyondNewest(recipientId, maxPerUser, capChunkSize)) {
+                chunk += ((Number) row[1]).longValue();
+                unreadCounterService.decrement(recipientId, NotificationType.valueOf((String) row[0]),
+                        ((Number) row[2]).longValue());
+            }
+            deleted += chunk;
+        } while (chunk == capChunkSize);
+
+        if (deleted > 0) {
+            recentInboxCache.invalidate(recipientId);
+        }
+        return deleted;
+    }
+}
@@ -1,17 +1,38 @@
 package com.notifyah.notification.service;
 
+import com.notifyah.common.exception.ApiException;
+import com.notifyah.common.id.SnowflakeIdGenerator;
+import com.notifyah.notification.dto.NotificationCursorResponse;
 import com.notifyah.notification.dto.NotificationEvent;
 import com.notifyah.notification.dto.NotificationResponse;
+import com.notifyah.notification.dto.NotificationRow;
+import com.notifyah.notification.dto.NotificationSelectionRequest;
 import com.notifyah.notification.entity.Notification;
+import com.notifyah.notification.entity.NotificationReadState;
 import com.notifyah.notification.entity.NotificationType;
+import com.notifyah.notification.lane.NotificationLaneRouter;
+import com.notifyah.notification.repository.NotificationReadStateRepository;
 import com.notifyah.notification.repository.NotificationRepository;
-import com.notifyah.websocket.NotificationWebSocketHandler;
+import com.notifyah.websocket.NotificationDispatcher;
+import com.notifyah.websocket.NotificationFrameEncoder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongPredicate;
 
 /**
  * Service for managing notifications in the NotiFyah system.
@@ -23,7 +44,37 @@ import org.springframework.transaction.annotation.Transactional;
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
-    private final NotificationWebSocketHandler webSocketHandler;
+    private final NotificationFrameEncoder frameEncoder;
+    private final NotificationDispatcher notificationDispatcher;
+    private final UnreadCounterService unreadCounterService;
+    private final NotificationFanOutService notificationFanOutService;
+    private final NotificationAggregator notificationAggregator;
+    private final NotificationIngestMetrics ingestMetrics;
+    private final NotificationLaneRouter laneRouter;
+    private final NotificationDeduplicator notificationDeduplicator;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationReadStateRepository readStateRepository;
+    private final RecentInboxCache recentInboxCache;
+
+    /**
+     * Whether marking as read moves the per-user read watermark instead of rewriting notification rows.
+     * Existing watermarks are honoured either way.
+     */
+    @Value("${notification.read-state.watermark-enabled:true}")
+    private boolean readWatermarkEnabled;
+
+    @Value("${notification.read-state.max-read-ids:256}")
+    private int maxReadIds;
+
+    /**
+     * Age below which notifications are marked read by their own flag rather than covered by the watermark;
+     * must exceed the clock skew between nodes plus the longest insert transaction.
+     */
+    @Value("${notification.read-state.watermark-safety-ms:10000}")
+    private long watermarkSafetyMillis;
+
+    @Value("${notification.bulk-ops.max-ids:1000}")
+    private int maxSelectionIds;
 
     /**
      * Creates a new notification from a notification event.
@@ -33,27 +84,13 @@ public class NotificationService {
      */
     public void createNotification(NotificationEvent event) {
         try {
-            log.info("Creating notification for event: {}", event);
-            
-            Notification notification = Notification.builder()
-                    .recipientId(event.getTargetUserId())
-                    .type(mapEventTypeToNotificationType(event.getEventType()))
-                    .content(event.getContent())
-                    .redirectUrl(event.getRedirectUrl())
-                    .isRead(false)
-                    .build();
+            log.debug("Creating notification for event: {}", event);
             
-            Notification savedNotification = notificationRepository.save(notification);
-            log.info("Successfully saved notification with ID: {}", savedNotification.getId());
-            
-            // Send real-time notification via WebSocket
-            try {
-                webSocketHandler.sendToUser(event.getTargetUserId(), savedNotification);
-                log.info("Notification sent to user {} via WebSocket", event.getTargetUserId());
-            } catch (Exception e) {
-                log.warn("Failed to send notification to user {} via WebSocket: {}", 
-                        event.getTargetUserId(), e.getMessage());
-                // Don't rethrow - WebSocket delivery failure shouldn't affect DB save
+            List<Notification> saved = createNotifications(List.of(event));
+            if (saved.isEmpty()) {
+                log.debug("Event produced no new notification row (fan-out, merged or duplicate): {}", event.getEventId());
+            } else {
+                log.debug("Successfully saved notification with ID: {}", saved.get(0).getId());
             }
             
         } catch (Exception e) {
@@ -62,6 +99,98 @@ public class NotificationService {
         }
     }
 
+    /**
+     * Creates notifications for a batch of events with a single bulk insert.
+     * WebSocket pushes happen only after the whole batch has been committed,
+     * so a failed insert never results in a pushed but unpersisted notification.
+     * Redelivered events are dropped by {@link NotificationDeduplicator} and events about the same entity
+     * are merged by {@link NotificationAggregator} before the insert;
+     * audience events are expanded by {@link NotificationFanOutService} after the batch.
+     * 
+     * @param events the notification events of one Kafka poll
+     * @return the saved single-recipient notifications, in event order
+     */
+    public List<Notification> createNotifications(List<NotificationEvent> events) {
+        if (events.isEmpty()) {
+            return List.of();
+        }
+
+        List<NotificationEvent> directEvents = new ArrayList<>(events.size());
+        List<NotificationEvent> audienceEvents = new ArrayList<>();
+        for (NotificationEvent event : events) {
+            if (event.isAudienceEvent()) {
+                audienceEvents.add(event);
+            } else {
+                directEvents.add(event);
+            }
+        }
+
+        List<Notification> savedNotifications = saveAndDispatch(notificationDeduplicator.dropSeen(directEvents));
+        for (NotificationEvent event : audienceEvents) {
+            notificationFanOutService.fanOut(event, mapEventTypeToNotificationType(event.getEventType()));
+        }
+        return savedNotifications;
+    }
+
+    private List<Notification> saveAndDispatch(List<NotificationEvent> events) {
+        if (events.isEmpty()) {
+            return List.of();
+        }
+
+        List<Notification> savedNotifications;
+        long startNanos = System.nanoTime();
+        try {
+            // Receipts, rows and counter increments commit together, or not at all
+            savedNotifications = transactionTemplate.execute(status -> {
+                List<NotificationEvent> newEvents = notificationDeduplicator.claim(events);
+                List<Notification> notifications = notificationAggregator.collapse(newEvents, this::toEntity);
+                if (notifications.isEmpty()) {
+                    return List.<Notification>of();
+                }
+                List<Notification> saved = notificationRepository.saveAll(notifications);
+                for (Notification notification : saved) {
+                    unreadCounterService.increment(notification.getRecipientId(), notification.getType());
+                }
+                return saved;
+            });
+            log.debug("Successfully saved {} notifications in one batch", savedNotifications.size());
+        } catch (Exception e) {
+            log.error("Error creating notifications for batch of {} events", events.size(), e);
+            throw new RuntimeException("Failed to create notifications", e);
+        } finally {
+            // A poll comes from a single lane's topic, so its first event identifies the lane
+            ingestMetrics.recordInsert(laneRouter.laneOf(events.get(0)), System.nanoTime() - startNanos, events.size());
+        }
+
+        notificationAggregator.open(savedNotifications);
+        recentInboxCache.added(savedNotifications);
+        try {
+            notificationDispatcher.dispatch(savedNotifications, Notification::getRecipientId, frameEncoder::encode);
+        } catch (Exception e) {
+            log.warn("Failed to dispatch {} notifications via WebSocket: {}", savedNotifications.size(), e.getMessage());
+            // Don't rethrow - WebSocket delivery failure shouldn't affect DB save
+        }
+        return savedNotifications;
+    }
+
+    /**
+     * Maps a notification event to a new, unsaved Notification entity.
+     * 
+     * @param event the notification event
+     * @return unsaved notification entity
+     */
+    private Notification toEntity(NotificationEvent event) {
+        return Notification.builder()
+                .recipientId(event.getTargetUserId())
+                .type(mapEventTypeToNotificationType(event.getEventType()))
+                .content(event.getContent())
+                .redirectUrl(event.getRedirectUrl())
+                .isRead(false)
+                .entityId(event.getEntityId())
+                .actorSample(event.getSenderId() != null ? String.valueOf(event.getSenderId()) : null)
+                .build();
+    }
+
     /**
      * Maps the event type string to NotificationType enum.
      * 
@@ -69,12 +198,12 @@ public class NotificationService {
      * @return corresponding NotificationType enum value
      */
     private NotificationType mapEventTypeToNotificationType(String eventType) {
-        try {
-            return NotificationType.valueOf(eventType);
-        } catch (IllegalArgumentException e) {
+        NotificationType type = NotificationType.fromName(eventType);
+        if (type == null) {
             log.warn("Unknown event type: {}. Defaulting to SYSTEM", eventType);
             return NotificationType.SYSTEM;
         }
+        return type;
     }
 
     /**
@@ -87,24 +216,70 @@ public class NotificationService {
     @Transactional(readOnly = true)
     public Page<NotificationResponse> getUserNotifications(Long userId, Pageable pageable) {
         log.debug("Fetching notifications for user: {} with pagination: {}", userId, pageable);
-        return notificationRepository.findByRecipientId(userId, pageable)
-                .map(NotificationResponse::fromEntity);
+        NotificationReadState readState = readStateOf(userId);
+        return notificationRepository.findRowsByRecipientId(userId, pageable)
+                .map(row -> NotificationResponse.fromRow(row, readState));
+    }
+
+    /**
+     * Get a keyset-paginated slice of notifications for a user, newest first.
+     * Reads one row beyond the limit to decide whether an older slice exists,
+     * so no count query is needed. The newest slice comes from {@link RecentInboxCache} when possible.
+     * 
+     * @param userId the user ID
+     * @param before exclusive cursor (notification ID), or null for the newest slice
+     * @param limit maximum number of notifications to return
+     * @return slice of notifications with the cursor for the next slice
+     */
+    @Transactional(readOnly = true)
+    public NotificationCursorResponse getUserNotificationsBefore(Long userId, Long before, int limit) {
+        log.debug("Fetching notifications for user: {} before: {} limit: {}", userId, before, limit);
+        List<NotificationRow> rows;
+        NotificationReadState readState;
+        if (before == null) {
+            // Cached rows already carry the read watermark
+            rows = recentInboxCache.newest(userId, limit + 1);
+            readState = NotificationReadState.empty(userId);
+        } else {
+            rows = notificationRepository.findRowsBefore(userId, before, Limit.of(limit + 1));
+            readState = readStateOf(userId);
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<NotificationResponse> items = (hasMore ? rows.subList(0, limit) : rows).stream()
+                .map(row -> NotificationResponse.fromRow(row, readState))
+                .toList();
+        Long nextCursor = hasMore ? items.get(items.size() - 1).getId() : null;
+        return new NotificationCursorResponse(items, nextCursor);
     }
 
     /**
      * Count unread notifications for a user.
+     * Served from the maintained unread counters rather than a count(*) over the user's rows.
      * 
      * @param userId the user ID
      * @return count of unread notifications
      */
-    @Transactional(readOnly = true)
     public long countUnread(Long userId) {
         log.debug("Counting unread notifications for user: {}", userId);
-        return notificationRepository.countByRecipientIdAndIsReadFalse(userId);
+        return unreadCounterService.getUnreadCount(userId);
+    }
+
+    /**
+     * Count unread notifications for a user, broken down by type.
+     * 
+     * @param userId the user ID
+     * @return count of unread notifications per type
+     */
+    public Map<NotificationType, Long> countUnreadByType(Long userId) {
+        log.debug("Counting unread notifications by type for user: {}", userId);
+        return unreadCounterService.getUnreadCountByType(userId);
     }
 
     /**
-     * Mark a specific notification as read.
+     * Mark a specific notification as read with one conditional statement; no entity is loaded.
+     * With the read watermark enabled, the ID is added to the user's read state and the notification row
+     * is left untouched; once the exception set is full, the row's own flag is set instead.
      * 
      * @param userId the user ID
      * @param id the notification ID
@@ -112,28 +287,93 @@ public class NotificationService {
     @Transactional
     public void markAsRead(Long userId, Long id) {
         log.debug("Marking notification {} as read for user: {}", id, userId);
-        Notification notification = notificationRepository.findByIdAndRecipientId(id, userId)
-                .orElseThrow(() -> new IllegalArgumentException("Notification not found or not owned by user"));
-        
-        notification.setRead(true);
-        notificationRepository.save(notification);
+        lockReadState(userId);
+        long marked = markReadByIds(userId, String.valueOf(id));
+        recentInboxCache.markedRead(userId, readId -> readId == id);
+        // Nothing changed: either already read, or not the user's notification
+        if (marked == 0 && !notificationRepository.existsByIdAndRecipientId(id, userId)) {
+            throw new IllegalArgumentException("Notification not found or not owned by user");
+        }
         log.info("Notification {} marked as read for user: {}", id, userId);
     }
 
+    /**
+     * Mark several notifications of a user as read in one request.
+     * An ID range without a lower bound moves the read watermark, if enabled; anything else is a single
+     * conditional statement. Notifications of other users, missing or already read ones are skipped.
+     * 
+     * @param userId the user ID
+     * @param selection IDs or an ID range
+     * @return number of notifications that were unread and are now read
+     */
+    @Transactional
+    public long markAsRead(Long userId, NotificationSelectionRequest selection) {
+        List<Long> ids = validateSelection(selection);
+        lockReadState(userId);
+        long marked;
+        if (ids != null) {
+            marked = markReadByIds(userId, joinIds(ids));
+        } else if (readWatermarkEnabled && selection.getFromId() == null) {
+            marked = decrementUnread(userId, readStateRepository.advanceTo(userId, upperBound(selection), safeWatermarkId()), 1);
+        } else {
+            marked = decrementUnread(userId, notificationRepository.markReadInRange(
+                    userId, lowerBound(selection), upperBound(selection)), 1);
+        }
+        recentInboxCache.markedRead(userId, selectionMatcher(ids, selection));
+        log.info("Marked {} notifications as read for user: {}", marked, userId);
+        return marked;
+    }
+
+    /**
+     * Serializes the read-state writes of one user, so concurrent requests never count a notification twice.
+     */
+    private void lockReadState(Long userId) {
+        if (readWatermarkEnabled) {
+            readStateRepository.lock(userId);
+        }
+    }
+
+    /**
+     * @return highest notification ID the read watermark may cover now; newer IDs may still be in flight
+     */
+    private long safeWatermarkId() {
+        return SnowflakeIdGenerator.lowerBoundAt(Instant.now().minusMillis(watermarkSafetyMillis)) - 1;
+    }
+
+    private long markReadByIds(Long userId, String ids) {
+        if (readWatermarkEnabled) {
+            long marked = decrementUnread(userId, readStateRepository.addReadIds(userId, ids, maxReadIds), 1);
+            if (marked > 0) {
+                return marked;
+            }
+            // Nothing unread among the IDs, or the exception set is full: the flag update below is a no-op in the first case
+        }
+        return decrementUnread(userId, notificationRepository.markReadByIds(userId, ids), 1);
+    }
+
     /**
      * Mark all unread notifications as read for a user.
+     * With the read watermark enabled this is a single-row upsert, regardless of how many are unread,
+     * plus the read flag of the notifications of the last {@code watermark-safety-ms}.
      * 
      * @param userId the user ID
      */
     @Transactional
     public void markAllAsRead(Long userId) {
         log.debug("Marking all notifications as read for user: {}", userId);
-        int updatedCount = notificationRepository.markAllAsRead(userId);
-        log.info("Marked {} notifications as read for user: {}", updatedCount, userId);
+        if (readWatermarkEnabled) {
+            readStateRepository.advanceToLatest(userId, safeWatermarkId());
+            log.info("Moved read watermark to the latest notification for user: {}", userId);
+        } else {
+            int updatedCount = notificationRepository.markAllAsRead(userId);
+            log.info("Marked {} notifications as read for user: {}", updatedCount, userId);
+        }
+        unreadCounterService.reset(userId);
+        recentInboxCache.markedRead(userId, readId -> true);
     }
 
     /**
-     * Delete a specific notification.
+     * Delete a specific notification with one conditional statement; no entity is loaded.
      * 
      * @param userId the user ID
      * @param id the notification ID
@@ -141,10 +381,111 @@ public class NotificationService {
     @Transactional
     public void delete(Long userId, Long id) {
         log.debug("Deleting notification {} for user: {}", id, userId);
-        Notification notification = notificationRepository.findByIdAndRecipientId(id, userId)
-                .orElseThrow(() -> new IllegalArgumentException("Notification not found or not owned by user"));
-        
-        notificationRepository.delete(notification);
+        if (decrementUnread(userId, notificationRepository.deleteByIds(userId, String.valueOf(id)), 2) == 0) {
+            throw new IllegalArgumentException("Notification not found or not owned by user");
+        }
+        recentInboxCache.deleted(userId, deletedId -> deletedId == id);
         log.info("Notification {} deleted for user: {}", id, userId);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Delete several notifications of a user in one request with a single statement.
+     * Notifications of other users and missing ones are skipped.
+     * 
+     * @param userId the user ID
+     * @param selection IDs or an ID range
+     * @return number of notifications deleted
+     */
+    @Transactional
+    public long delete(Long userId, NotificationSelectionRequest selection) {
+        List<Long> ids = validateSelection(selection);
+        List<Object[]> rows = ids != null
+                ? notificationRepository.deleteByIds(userId, joinIds(ids))
+                : notificationRepository.deleteInRange(userId, lowerBound(selection), upperBound(selection));
+        long deleted = decrementUnread(userId, rows, 2);
+        recentInboxCache.deleted(userId, selectionMatcher(ids, selection));
+        log.info("Deleted {} notifications for user: {}", deleted, userId);
+        return deleted;
+    }
+
+    /**
+     * Applies the unread counter changes reported by a bulk statement.
+     * 
+     * @param rows rows of [String type, Long affected, ...]
+     * @param unreadColumn column holding how many of the affected notifications were unread
+     * @return total affected notifications
+     */
+    private long decrementUnread(Long userId, List<Object[]> rows, int unreadColumn) {
+        long affected = 0;
+        for (Object[] row : rows) {
+            NotificationType type = NotificationType.valueOf((String) row[0]);
+            affected += ((Number) row[1]).longValue();
+            unreadCounterService.decrement(userId, type, ((Number) row[unreadColumn]).longValue());
+        }
+        return affected;
+    }
+
+    /**
+     * @return the selected IDs, or null if the selection is a range
+     * @throws ApiException if the selection is empty, ambiguous, inverted or too large
+     */
+    private List<Long> validateSelection(NotificationSelectionRequest selection) {
+        boolean hasIds = selection.getIds() != null && !selection.getIds().isEmpty();
+        boolean hasRange = selection.getFromId() != null || selection.getToId() != null;
+        if (hasIds == hasRange) {
+            throw new ApiException("Specify either ids or an ID range (fromId, toId)",
+                    HttpStatus.BAD_REQUEST, "INVALID_SELECTION");
+        }
+        if (hasIds) {
+            if (selection.getIds().size() > maxSelectionIds) {
+                throw new ApiException("At most " + maxSelectionIds + " IDs per request",
+                        HttpStatus.PAYLOAD_TOO_LARGE, "SELECTION_TOO_LARGE");
+            }
+            if (selection.getIds().contains(null)) {
+                throw new ApiException("IDs must not be null", HttpStatus.BAD_REQUEST, "INVALID_SELECTION");
+            }
+            return selection.getIds();
+        }
+        if (lowerBound(selection) > upperBound(selection)) {
+            throw new ApiException("fromId must not exceed toId", HttpStatus.BAD_REQUEST, "INVALID_SELECTION");
+        }
+        return null;
+    }
+
+    private static LongPredicate selectionMatcher(List<Long> ids, NotificationSelectionRequest selection) {
+        if (ids != null) {
+            Set<Long> selected = new HashSet<>(ids);
+            return selected::contains;
+        }
+        long lower = lowerBound(selection);
+        long upper = upperBound(selection);
+        return id -> id >= lower && id <= upper;
+    }
+
+    private static long lowerBound(NotificationSelectionRequest selection) {
+        return selection.getFromId() != null ? selection.getFromId() : Long.MIN_VALUE;
+    }
+
+    private static long upperBound(NotificationSelectionRequest selection) {
+        return selection.getToId() != null ? selection.getToId() : Long.MAX_VALUE;
+    }
+
+    private static String joinIds(List<Long> ids) {
+        StringBuilder joined = new StringBuilder(ids.size() * 20);
+        for (Long id : ids) {
+            if (!joined.isEmpty()) {
+                joined.append(',');
+            }
+            joined.append(id);
+        }
+        return joined.toString();
+    }
+
+    /**
+     * @param userId the user ID
+     * @return the user's read watermark, or an empty one if none was stored
+     */
+    private NotificationReadState readStateOf(Long userId) {
+        return readStateRepository.findById(userId).orElseGet(() -> NotificationReadState.empty(userId));
+    }
+}
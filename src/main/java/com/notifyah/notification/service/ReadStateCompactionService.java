@@ -0,0 +1,82 @@
+package com.notifyah.notification.service;
+
+import com.notifyah.notification.repository.NotificationReadStateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Folds the per-user read watermark back into the notification rows in the background.
+ *
+ * <p>Marking as read only moves the watermark (see {@link com.notifyah.notification.entity.NotificationReadState}),
+ * so without this job the rows it covers would keep {@code is_read = false} forever: the partial unread index
+ * would grow to almost the whole table, and every unread query would scan it and filter by the read state.
+ * Each run sets the read flag of the covered rows in chunks and then drops the folded IDs from the exception set.
+ * The read state stays authoritative; folding changes no result and no unread count.
+ *
+ * <p>Only users whose read state changed since the previous run are visited; the first run after startup
+ * visits all of them.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ReadStateCompactionService {
+
+    private final NotificationReadStateRepository readStateRepository;
+
+    @Value("${notification.read-state.fold-batch-users:500}")
+    private int batchUsers;
+
+    @Value("${notification.read-state.fold-chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Start of the previous run; null until the first run completed.
+     */
+    private LocalDateTime lastRunStartedAt;
+
+    @Scheduled(fixedDelayString = "${notification.read-state.fold-interval-ms:300000}",
+            initialDelayString = "${notification.read-state.fold-interval-ms:300000}")
+    public void run() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        // Runs even with the watermark switched off, for the states written before
+        LocalDateTime since = lastRunStartedAt != null ? lastRunStartedAt : LocalDateTime.of(1970, 1, 1, 0, 0);
+        long after = 0;
+        long users = 0;
+        long flagged = 0;
+        List<Long> userIds;
+        do {
+            userIds = readStateRepository.findUserIdsUpdatedSince(since, after, batchUsers);
+            for (Long userId : userIds) {
+                try {
+                    flagged += fold(userId);
+                } catch (Exception e) {
+                    log.warn("Failed to fold read state of user {}: {}", userId, e.getMessage());
+                }
+                after = userId;
+            }
+            users += userIds.size();
+        } while (userIds.size() == batchUsers);
+
+        lastRunStartedAt = startedAt;
+        if (flagged > 0) {
+            log.info("Folded read state of {} users into {} notification rows", users, flagged);
+        }
+    }
+
+    private long fold(Long userId) {
+        long flagged = 0;
+        int chunk;
+        do {
+            chunk = readStateRepository.flagCovered(userId, chunkSize);
+            flagged += chunk;
+        } while (chunk == chunkSize);
+        readStateRepository.pruneReadIds(userId);
+        return flagged;
+    }
+}
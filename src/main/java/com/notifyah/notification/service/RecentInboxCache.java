@@ -0,0 +1,430 @@
+package com.notifyah.notification.service;
+
+import com.notifyah.notification.dto.InboxCacheStatsResponse;
+import com.notifyah.notification.dto.NotificationRow;
+import com.notifyah.notification.entity.Notification;
+import com.notifyah.notification.entity.NotificationReadState;
+import com.notifyah.notification.repository.NotificationReadStateRepository;
+import com.notifyah.notification.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+
+/**
+ * Keeps the newest {@code notification.inbox-cache.capacity} notifications of recently active users in memory,
+ * so the first page of the inbox, typically requested right after a push, is served without a query.
+ *
+ * <p>Each user's inbox is a bounded buffer, newest first, loaded from the database on the first miss and then
+ * kept current by this instance's own writes: new notifications are prepended, reads and deletes applied in place,
+ * all after the surrounding transaction committed. Changes made by other instances are not seen, so an inbox is
+ * reloaded once it is older than {@code max-age-ms}; that bounds staleness the same way the unread counter cache
+ * does. Inboxes are dropped when idle for {@code idle-ms} and, least recently used first, beyond {@code max-users}.
+ *
+ * <p>A scheduled check compares a sample of cached inboxes with the repository and drops the ones that differ.
+ * The unread badge needs no entry here; it is already served from {@link UnreadCounterService}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RecentInboxCache {
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationReadStateRepository readStateRepository;
+
+    @Value("${notification.inbox-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notification.inbox-cache.capacity:50}")
+    private int capacity;
+
+    @Value("${notification.inbox-cache.max-users:100000}")
+    private int maxUsers;
+
+    @Value("${notification.inbox-cache.idle-ms:300000}")
+    private long idleMillis;
+
+    @Value("${notification.inbox-cache.max-age-ms:30000}")
+    private long maxAgeMillis;
+
+    @Value("${notification.inbox-cache.verify-sample-size:20}")
+    private int verifySampleSize;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong verified = new AtomicLong();
+    private final AtomicLong inconsistencies = new AtomicLong();
+
+    /**
+     * Inboxes by user ID in access order. Guarded by its own monitor; each inbox by its own.
+     */
+    private final LinkedHashMap<Long, Inbox> inboxes = new LinkedHashMap<>(1024, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Inbox> eldest) {
+            if (size() > maxUsers) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * Returns the newest notifications of a user, newest first, with the read watermark already applied.
+     * Served from memory when the cached inbox holds enough rows; otherwise the inbox is (re)loaded.
+     *
+     * @param userId the user ID
+     * @param count maximum number of rows
+     * @return up to {@code count} rows
+     */
+    public List<NotificationRow> newest(Long userId, int count) {
+        if (!enabled || count > capacity) {
+            return load(userId, count);
+        }
+
+        long now = System.currentTimeMillis();
+        Inbox inbox;
+        synchronized (inboxes) {
+            inbox = inboxes.get(userId);
+        }
+        if (inbox != null) {
+            synchronized (inbox) {
+                if (inbox.isServable(count, now - maxAgeMillis)) {
+                    inbox.lastAccessMillis = now;
+                    hits.incrementAndGet();
+                    return inbox.newest(count);
+                }
+            }
+        }
+
+        misses.incrementAndGet();
+        Inbox loading = new Inbox(now);
+        synchronized (inboxes) {
+            inboxes.put(userId, loading);
+        }
+        List<NotificationRow> rows = load(userId, capacity);
+        synchronized (loading) {
+            if (loading.stale) {
+                // Written to while loading: the rows may predate the write
+                remove(userId, loading);
+            } else {
+                loading.fill(rows, rows.size() < capacity);
+            }
+        }
+        return rows.size() > count ? new ArrayList<>(rows.subList(0, count)) : rows;
+    }
+
+    /**
+     * Prepends newly created notifications to their recipients' cached inboxes, once committed.
+     *
+     * @param saved saved notifications, possibly of several recipients
+     */
+    public void added(List<Notification> saved) {
+        if (!enabled || saved.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            for (Notification notification : saved) {
+                Inbox inbox = inboxOf(notification.getRecipientId());
+                if (inbox != null) {
+                    synchronized (inbox) {
+                        inbox.prepend(toRow(notification), capacity);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Marks cached notifications of a user as read, once committed.
+     *
+     * @param userId the user ID
+     * @param ids matches the IDs that were marked as read
+     */
+    public void markedRead(Long userId, LongPredicate ids) {
+        update(userId, inbox -> inbox.markRead(ids));
+    }
+
+    /**
+     * Removes deleted notifications from a user's cached inbox, once committed.
+     *
+     * @param userId the user ID
+     * @param ids matches the IDs that were deleted
+     */
+    public void deleted(Long userId, LongPredicate ids) {
+        update(userId, inbox -> inbox.remove(ids));
+    }
+
+    /**
+     * Drops a user's cached inbox, once committed, e.g. after a cached notification changed in place.
+     *
+     * @param userId the user ID
+     */
+    public void invalidate(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> {
+            synchronized (inboxes) {
+                inboxes.remove(userId);
+            }
+        });
+    }
+
+    /**
+     * Drops idle and expired inboxes.
+     */
+    @Scheduled(fixedDelayString = "${notification.inbox-cache.sweep-interval-ms:60000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        synchronized (inboxes) {
+            Iterator<Inbox> it = inboxes.values().iterator();
+            while (it.hasNext()) {
+                Inbox inbox = it.next();
+                if (now - inbox.lastAccessMillis > idleMillis || now - inbox.loadedAtMillis > maxAgeMillis) {
+                    it.remove();
+                    removed++;
+                }
+            }
+        }
+        evictions.addAndGet(removed);
+        if (removed > 0) {
+            log.debug("Evicted {} idle or expired inboxes", removed);
+        }
+    }
+
+    /**
+     * Compares a sample of cached inboxes, most recently used first, with the repository
+     * and drops every inbox whose rows differ. Inboxes written to during the check are skipped.
+     *
+     * @return number of inconsistent inboxes found in this run
+     */
+    @Scheduled(fixedDelayString = "${notification.inbox-cache.verify-interval-ms:60000}",
+            initialDelayString = "${notification.inbox-cache.verify-interval-ms:60000}")
+    public int verify() {
+        if (!enabled) {
+            return 0;
+        }
+        List<Map.Entry<Long, Inbox>> sample = new ArrayList<>(verifySampleSize);
+        synchronized (inboxes) {
+            List<Map.Entry<Long, Inbox>> all = new ArrayList<>(inboxes.entrySet());
+            for (int i = all.size() - 1; i >= 0 && sample.size() < verifySampleSize; i--) {
+                sample.add(Map.entry(all.get(i).getKey(), all.get(i).getValue()));
+            }
+        }
+
+        int inconsistent = 0;
+        for (Map.Entry<Long, Inbox> entry : sample) {
+            Inbox inbox = entry.getValue();
+            List<NotificationRow> cached;
+            long version;
+            synchronized (inbox) {
+                if (!inbox.loaded || inbox.stale) {
+                    continue;
+                }
+                cached = new ArrayList<>(inbox.rows);
+                version = inbox.version;
+            }
+            List<NotificationRow> actual = load(entry.getKey(), Math.max(cached.size(), 1));
+            synchronized (inbox) {
+                if (inbox.version != version) {
+                    continue;
+                }
+                verified.incrementAndGet();
+                if (!cached.equals(actual.subList(0, Math.min(actual.size(), cached.size())))
+                        || (cached.isEmpty() && !actual.isEmpty())) {
+                    inconsistent++;
+                    inconsistencies.incrementAndGet();
+                    remove(entry.getKey(), inbox);
+                    log.warn("Cached inbox of user {} differs from the repository; dropped", entry.getKey());
+                }
+            }
+        }
+        return inconsistent;
+    }
+
+    /**
+     * @return current size and counters of the cache
+     */
+    public InboxCacheStatsResponse stats() {
+        int users;
+        synchronized (inboxes) {
+            users = inboxes.size();
+        }
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        return new InboxCacheStatsResponse(enabled, users, capacity, hitCount, missCount,
+                hitCount + missCount == 0 ? 0 : (double) hitCount / (hitCount + missCount),
+                evictions.get(), verified.get(), inconsistencies.get());
+    }
+
+    private List<NotificationRow> load(Long userId, int count) {
+        List<NotificationRow> rows = notificationRepository.findRowsNewestFirst(userId, Limit.of(count));
+        NotificationReadState readState = readStateRepository.findById(userId)
+                .orElseGet(() -> NotificationReadState.empty(userId));
+        List<NotificationRow> result = new ArrayList<>(rows.size());
+        for (NotificationRow row : rows) {
+            result.add(row.read() || !readState.covers(row.id()) ? row : withRead(row));
+        }
+        return result;
+    }
+
+    private void update(Long userId, Consumer<Inbox> change) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> {
+            Inbox inbox = inboxOf(userId);
+            if (inbox != null) {
+                synchronized (inbox) {
+                    change.accept(inbox);
+                }
+            }
+        });
+    }
+
+    private Inbox inboxOf(Long userId) {
+        synchronized (inboxes) {
+            return inboxes.get(userId);
+        }
+    }
+
+    private void remove(Long userId, Inbox inbox) {
+        synchronized (inboxes) {
+            inboxes.remove(userId, inbox);
+        }
+    }
+
+    private static NotificationRow toRow(Notification notification) {
+        // Postgres keeps microseconds; truncate so cached and loaded rows compare equal
+        return new NotificationRow(notification.getId(), notification.getType(), notification.getContent(),
+                notification.getRedirectUrl(), notification.isRead(),
+                notification.getCreatedAt() != null ? notification.getCreatedAt().truncatedTo(ChronoUnit.MICROS) : null,
+                notification.getActorCount(), notification.getActorSample());
+    }
+
+    private static NotificationRow withRead(NotificationRow row) {
+        return new NotificationRow(row.id(), row.type(), row.content(), row.redirectUrl(), true,
+                row.createdAt(), row.actorCount(), row.actorSample());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Newest rows of one user. Guarded by its own monitor.
+     */
+    private static final class Inbox {
+        private final ArrayDeque<NotificationRow> rows = new ArrayDeque<>();
+        private final long loadedAtMillis;
+        private volatile long lastAccessMillis;
+        private boolean loaded;
+        /**
+         * Written to before the load finished; the loaded rows cannot be trusted.
+         */
+        private boolean stale;
+        /**
+         * The buffer holds every notification of the user, not just the newest ones.
+         */
+        private boolean complete;
+        private long version;
+
+        private Inbox(long now) {
+            this.loadedAtMillis = now;
+            this.lastAccessMillis = now;
+        }
+
+        private boolean isServable(int count, long notLoadedBefore) {
+            return loaded && !stale && loadedAtMillis >= notLoadedBefore && (rows.size() >= count || complete);
+        }
+
+        private List<NotificationRow> newest(int count) {
+            List<NotificationRow> result = new ArrayList<>(Math.min(count, rows.size()));
+            for (NotificationRow row : rows) {
+                if (result.size() == count) {
+                    break;
+                }
+                result.add(row);
+            }
+            return result;
+        }
+
+        private void fill(List<NotificationRow> loadedRows, boolean all) {
+            rows.addAll(loadedRows);
+            complete = all;
+            loaded = true;
+        }
+
+        private void prepend(NotificationRow row, int capacity) {
+            version++;
+            if (!loaded) {
+                stale = true;
+                return;
+            }
+            NotificationRow newest = rows.peekFirst();
+            if (newest != null && newest.id() >= row.id()) {
+                // Out of order (e.g. an ID from a node with a lagging clock): reload rather than sort in place
+                stale = true;
+                return;
+            }
+            rows.addFirst(row);
+            if (rows.size() > capacity) {
+                rows.removeLast();
+                complete = false;
+            }
+        }
+
+        private void markRead(LongPredicate ids) {
+            version++;
+            if (!loaded) {
+                stale = true;
+                return;
+            }
+            List<NotificationRow> updated = new ArrayList<>(rows.size());
+            for (NotificationRow row : rows) {
+                updated.add(!row.read() && ids.test(row.id()) ? withRead(row) : row);
+            }
+            rows.clear();
+            rows.addAll(updated);
+        }
+
+        private void remove(LongPredicate ids) {
+            version++;
+            if (!loaded) {
+                stale = true;
+                return;
+            }
+            rows.removeIf(row -> ids.test(row.id()));
+        }
+    }
+}
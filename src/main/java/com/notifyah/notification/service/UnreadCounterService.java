@@ -0,0 +1,441 @@
+package com.notifyah.notification.service;
+
+import com.notifyah.common.id.SnowflakeIdGenerator;
+import com.notifyah.notification.entity.NotificationType;
+import com.notifyah.notification.entity.UnreadCounter;
+import com.notifyah.notification.repository.NotificationRepository;
+import com.notifyah.notification.repository.UnreadCounterRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Maintained per-user unread counters, broken down by notification type.
+ *
+ * <p>Reads are served from memory. Local changes are applied to the in-memory copy immediately
+ * and recorded as pending deltas, which are flushed to {@code notification_unread_counters}
+ * as atomic additive updates, so several instances can maintain the same counters.
+ * Cached entries expire after {@code notification.unread-counter.cache-ttl-ms} and are reloaded
+ * from the counter table, which bounds how stale a count changed on another instance can be.
+ *
+ * <p>A user's counters are bootstrapped from the notifications table the first time they are
+ * needed, and periodically reconciled against it to correct any drift.
+ *
+ * <p>Database I/O for a user (flushing, loading, reconciling) runs under a striped lock, never inside
+ * a map's compute function, so it cannot interleave with another flush of the same user. Recording a
+ * delta is memory-only and takes no lock; a newly loaded entry is installed together with the deltas
+ * still pending at that moment, so deltas recorded while it was loading are not lost.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class UnreadCounterService {
+
+    private static final NotificationType[] TYPES = NotificationType.values();
+    private static final int LOCK_STRIPES = 256;
+
+    private final UnreadCounterRepository unreadCounterRepository;
+    private final NotificationRepository notificationRepository;
+
+    @Value("${notification.unread-counter.cache-ttl-ms:30000}")
+    private long cacheTtlMillis;
+
+    @Value("${notification.unread-counter.reconcile-quiet-ms:60000}")
+    private long reconcileQuietMillis;
+
+    /**
+     * In-memory counters of recently active users.
+     */
+    private final ConcurrentHashMap<Long, CachedCounters> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Local changes not yet written to the counter table. Key: userId, Value: delta per type ordinal.
+     */
+    private final ConcurrentHashMap<Long, long[]> pendingDeltas = new ConcurrentHashMap<>();
+
+    /**
+     * Drift between stored and recomputed counters seen by the previous reconcile, not corrected yet.
+     */
+    private final ConcurrentHashMap<Long, long[]> suspectedDrift = new ConcurrentHashMap<>();
+
+    /**
+     * Serialize database I/O per user. Striped, so locks never have to be created or removed per user.
+     */
+    private final ReentrantLock[] userLocks = createLocks();
+
+    /**
+     * Get the total unread count of a user.
+     *
+     * @param userId the user ID
+     * @return unread notifications across all types
+     */
+    public long getUnreadCount(Long userId) {
+        AtomicLongArray counts = counters(userId).counts;
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += Math.max(counts.get(i), 0);
+        }
+        return total;
+    }
+
+    /**
+     * Get the unread count of a user broken down by notification type.
+     *
+     * @param userId the user ID
+     * @return unread count per type (every type present)
+     */
+    public Map<NotificationType, Long> getUnreadCountByType(Long userId) {
+        AtomicLongArray counts = counters(userId).counts;
+        Map<NotificationType, Long> result = new EnumMap<>(NotificationType.class);
+        for (NotificationType type : TYPES) {
+            result.put(type, Math.max(counts.get(type.ordinal()), 0));
+        }
+        return result;
+    }
+
+    /**
+     * Record a newly created unread notification.
+     * Applied after the surrounding transaction commits, if there is one.
+     *
+     * @param userId the recipient ID
+     * @param type the notification type
+     */
+    public void increment(Long userId, NotificationType type) {
+        afterCommit(() -> applyDelta(userId, type, 1));
+    }
+
+    /**
+     * Record one new unread notification for each of many users (audience fan-out).
+     * Written to the counter table with a single statement instead of one pending delta per user,
+     * so memory stays flat regardless of the audience size.
+     *
+     * @param userIds the recipient IDs
+     * @param type the notification type
+     */
+    public void incrementAll(Collection<Long> userIds, NotificationType type) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            unreadCounterRepository.addDeltaForUsers(userIds, type.name(), 1);
+            for (Long userId : userIds) {
+                CachedCounters cached = cache.get(userId);
+                if (cached != null) {
+                    cached.counts.incrementAndGet(type.ordinal());
+                }
+            }
+        });
+    }
+
+    /**
+     * Record an unread notification that was read or deleted.
+     * Applied after the surrounding transaction commits, if there is one.
+     *
+     * @param userId the recipient ID
+     * @param type the notification type
+     */
+    public void decrement(Long userId, NotificationType type) {
+        decrement(userId, type, 1);
+    }
+
+    /**
+     * Record several unread notifications of one type that were read or deleted at once.
+     * Applied after the surrounding transaction commits, if there is one.
+     *
+     * @param userId the user ID
+     * @param type the notification type
+     * @param count number of notifications
+     */
+    public void decrement(Long userId, NotificationType type, long count) {
+        if (count > 0) {
+            afterCommit(() -> applyDelta(userId, type, -count));
+        }
+    }
+
+    /**
+     * Reset all counters of a user to zero (all notifications read).
+     * Applied after the surrounding transaction commits, if there is one.
+     *
+     * @param userId the user ID
+     */
+    public void reset(Long userId) {
+        afterCommit(() -> withUserLock(userId, () -> {
+            // Deltas recorded before the reset are covered by it; later ones are folded into the new entry
+            pendingDeltas.remove(userId);
+            for (NotificationType type : TYPES) {
+                unreadCounterRepository.upsert(userId, type.name(), 0);
+            }
+            install(userId, new long[TYPES.length]);
+        }));
+    }
+
+    /**
+     * Write pending deltas to the counter table and drop expired cache entries.
+     */
+    @Scheduled(fixedDelayString = "${notification.unread-counter.flush-interval-ms:1000}")
+    public void flush() {
+        for (Long userId : pendingDeltas.keySet()) {
+            try {
+                withUserLock(userId, () -> flushUser(userId));
+            } catch (Exception e) {
+                log.warn("Failed to flush unread counters for user {}: {}", userId, e.getMessage());
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        cache.entrySet().removeIf(entry -> now - entry.getValue().loadedAtMillis > cacheTtlMillis);
+    }
+
+    /**
+     * Recompute the counters of all recently active users from the notifications table.
+     * Corrects drift from crashes between commit and flush or from concurrent updates.
+     *
+     * <p>A recount cannot tell drift from changes committed on another instance whose deltas are not
+     * flushed yet, and overwriting the stored value would count those deltas twice once they land.
+     * Drift is therefore only corrected when the same difference is seen on two consecutive runs for
+     * a user without notifications newer than {@code notification.unread-counter.reconcile-quiet-ms},
+     * and it is applied as an additive delta, so concurrent flushes are never overwritten.
+     */
+    @Scheduled(fixedDelayString = "${notification.unread-counter.reconcile-interval-ms:600000}",
+            initialDelayString = "${notification.unread-counter.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        suspectedDrift.keySet().retainAll(cache.keySet());
+        int reconciled = 0;
+        int corrected = 0;
+        for (Long userId : cache.keySet()) {
+            try {
+                if (withUserLock(userId, () -> reconcileUser(userId))) {
+                    corrected++;
+                }
+                reconciled++;
+            } catch (Exception e) {
+                log.warn("Failed to reconcile unread counters for user {}: {}", userId, e.getMessage());
+            }
+        }
+        log.info("Reconciled unread counters for {} users, corrected {}", reconciled, corrected);
+    }
+
+    private void applyDelta(Long userId, NotificationType type, long delta) {
+        // Pending delta and cached entry change together, so install() sees either both or neither
+        pendingDeltas.compute(userId, (key, deltas) -> {
+            long[] result = deltas != null ? deltas : new long[TYPES.length];
+            result[type.ordinal()] += delta;
+
+            CachedCounters cached = cache.get(userId);
+            if (cached != null) {
+                cached.counts.addAndGet(type.ordinal(), delta);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Install a freshly loaded entry. The counts must include everything flushed so far;
+     * deltas still pending are added, since they are not in the counter table yet.
+     */
+    private CachedCounters install(Long userId, long[] counts) {
+        CachedCounters[] installed = new CachedCounters[1];
+        pendingDeltas.compute(userId, (key, deltas) -> {
+            if (deltas != null) {
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += deltas[i];
+                }
+            }
+            installed[0] = new CachedCounters(counts);
+            cache.put(userId, installed[0]);
+            return deltas;
+        });
+        return installed[0];
+    }
+
+    /**
+     * Get the cached counters of a user, loading them from the counter table if needed.
+     */
+    private CachedCounters counters(Long userId) {
+        CachedCounters cached = cache.get(userId);
+        if (isFresh(cached)) {
+            return cached;
+        }
+        return withUserLock(userId, () -> {
+            CachedCounters current = cache.get(userId);
+            if (isFresh(current)) {
+                return current;
+            }
+            // Local deltas must reach the table before reloading, or the reload would miss them
+            flushUser(userId);
+            return install(userId, load(userId));
+        });
+    }
+
+    /**
+     * Compare a user's stored counters with a recount, correcting drift confirmed by the previous run.
+     *
+     * @return true if a correction was applied
+     */
+    private boolean reconcileUser(Long userId) {
+        flushUser(userId);
+        long quietSince = SnowflakeIdGenerator.lowerBoundAt(Instant.now().minusMillis(reconcileQuietMillis));
+        if (notificationRepository.existsByRecipientIdAndIdGreaterThan(userId, quietSince)) {
+            // Deltas of recent notifications may still be pending on another instance
+            suspectedDrift.remove(userId);
+            install(userId, load(userId));
+            return false;
+        }
+
+        long[] stored = load(userId);
+        long[] drift = count(userId);
+        boolean drifted = false;
+        for (int i = 0; i < drift.length; i++) {
+            drift[i] -= stored[i];
+            drifted |= drift[i] != 0;
+        }
+        if (!drifted) {
+            suspectedDrift.remove(userId);
+            install(userId, stored);
+            return false;
+        }
+
+        long[] previous = suspectedDrift.put(userId, drift);
+        if (previous == null || !Arrays.equals(previous, drift)) {
+            install(userId, stored);
+            return false;
+        }
+        suspectedDrift.remove(userId);
+        for (NotificationType type : TYPES) {
+            long delta = drift[type.ordinal()];
+            if (delta != 0) {
+                unreadCounterRepository.addDelta(userId, type.name(), delta);
+                stored[type.ordinal()] += delta;
+            }
+        }
+        log.debug("Corrected unread counter drift {} for user {}", Arrays.toString(drift), userId);
+        install(userId, stored);
+        return true;
+    }
+
+    private long[] load(Long userId) {
+        List<UnreadCounter> rows = unreadCounterRepository.findByUserId(userId);
+        if (rows.isEmpty()) {
+            return bootstrap(userId);
+        }
+        long[] counts = new long[TYPES.length];
+        for (UnreadCounter row : rows) {
+            counts[row.getType().ordinal()] = row.getUnreadCount();
+        }
+        return counts;
+    }
+
+    /**
+     * Compute a user's counters from the notifications table and store them as absolute values.
+     */
+    private long[] bootstrap(Long userId) {
+        long[] counts = count(userId);
+        for (NotificationType type : TYPES) {
+            unreadCounterRepository.upsert(userId, type.name(), counts[type.ordinal()]);
+        }
+        log.debug("Bootstrapped unread counters for user {} from notifications", userId);
+        return counts;
+    }
+
+    /**
+     * Count a user's unread notifications per type from the notifications table.
+     */
+    private long[] count(Long userId) {
+        long[] counts = new long[TYPES.length];
+        for (Object[] row : notificationRepository.countUnreadGroupByType(userId)) {
+            counts[NotificationType.valueOf((String) row[0]).ordinal()] = ((Number) row[1]).longValue();
+        }
+        return counts;
+    }
+
+    /**
+     * Write a user's pending deltas to the counter table. Callers hold the user's lock.
+     */
+    private void flushUser(Long userId) {
+        long[] deltas = pendingDeltas.remove(userId);
+        if (deltas == null) {
+            return;
+        }
+        for (NotificationType type : TYPES) {
+            long delta = deltas[type.ordinal()];
+            if (delta == 0) {
+                continue;
+            }
+            if (unreadCounterRepository.addDelta(userId, type.name(), delta) == 0) {
+                // Counters never initialized: the bootstrap count already includes these changes
+                bootstrap(userId);
+                return;
+            }
+        }
+    }
+
+    private boolean isFresh(CachedCounters cached) {
+        return cached != null && System.currentTimeMillis() - cached.loadedAtMillis <= cacheTtlMillis;
+    }
+
+    private <T> T withUserLock(Long userId, Supplier<T> action) {
+        ReentrantLock lock = userLocks[Math.floorMod(Long.hashCode(userId), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void withUserLock(Long userId, Runnable action) {
+        withUserLock(userId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private static ReentrantLock[] createLocks() {
+        ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Counters of one user as loaded from the counter table plus local changes since.
+     */
+    private static final class CachedCounters {
+        private final AtomicLongArray counts;
+        private final long loadedAtMillis;
+
+        private CachedCounters(long[] counts) {
+            this.counts = new AtomicLongArray(counts);
+            this.loadedAtMillis = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.notifyah.notification.spool;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tracks whether the Kafka broker is currently reachable for notification sends.
+ *
+ * <p>After {@code notification.spool.failure-threshold} consecutive send failures the circuit opens and sends
+ * go straight to the local spool, so request threads no longer wait on the producer. Once
+ * {@code notification.spool.open-ms} has passed, a single probe is let through; its success closes the circuit.
+ */
+@Component
+@Slf4j
+public class BrokerCircuitBreaker {
+
+    @Value("${notification.spool.failure-threshold:3}")
+    private int failureThreshold;
+
+    @Value("${notification.spool.open-ms:5000}")
+    private long openMillis;
+
+    private int consecutiveFailures;
+    private boolean open;
+    private boolean probing;
+    private long openedAtMillis;
+
+    /**
+     * @return true if a send may be attempted now (circuit closed, or this caller is the half-open probe)
+     */
+    public synchronized boolean allowRequest() {
+        if (!open) {
+            return true;
+        }
+        if (!probing && System.currentTimeMillis() - openedAtMillis >= openMillis) {
+            probing = true;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized void recordSuccess() {
+        if (open) {
+            log.info("Kafka reachable again, closing send circuit");
+        }
+        consecutiveFailures = 0;
+        open = false;
+        probing = false;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (probing || (!open && consecutiveFailures >= failureThreshold)) {
+            if (!open) {
+                log.warn("Kafka sends failed {} times in a row, opening send circuit for {} ms", consecutiveFailures, openMillis);
+            }
+            open = true;
+            probing = false;
+            openedAtMillis = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Records a send that failed because of the event itself (e.g. a serialization error), which says nothing
+     * about the broker: it does not count towards opening the circuit, and a half-open probe is left to the next send.
+     */
+    public synchronized void recordNonBrokerFailure() {
+        probing = false;
+    }
+
+    public synchronized boolean isOpen() {
+        return open;
+    }
+}
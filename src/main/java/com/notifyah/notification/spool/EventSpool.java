@@ -0,0 +1,359 @@
+package com.notifyah.notification.spool;
+
+import com.notifyah.notification.codec.NotificationEventCodec;
+import com.notifyah.notification.dto.NotificationEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only local spool of notification events, kept in memory-mapped segment files.
+ *
+ * <p>Events are appended in {@link NotificationEventCodec} format as {@code [length][crc32][bytes]} records,
+ * so an append costs a memory copy and returns immediately. {@link SpoolRelay} reads them back in order and
+ * advances a checkpoint once Kafka acknowledged them; fully relayed segments are deleted.
+ *
+ * <p>Appended data is in the page cache and survives a process crash; with {@code notification.spool.fsync=true}
+ * every append is also forced to disk so it survives an OS crash, at the cost of a sync per append.
+ * A record torn by a crash fails its checksum on recovery and is discarded together with anything after it.
+ *
+ * <p>The spool directory belongs to one process: it is locked on startup, and startup fails if another
+ * instance already holds the lock, since two writers would overwrite each other's segments.
+ */
+@Component
+@Slf4j
+public class EventSpool {
+
+    private static final int HEADER_BYTES = 8;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String LOCK_FILE = "lock";
+
+    @Value("${notification.spool.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notification.spool.directory:${java.io.tmpdir}/notifyah-spool}")
+    private String directory;
+
+    @Value("${notification.spool.segment-bytes:67108864}")
+    private int segmentBytes;
+
+    @Value("${notification.spool.max-segments:16}")
+    private int maxSegments;
+
+    @Value("${notification.spool.fsync:false}")
+    private boolean fsync;
+
+    private Path spoolDir;
+    private FileChannel lockChannel;
+    private FileLock lock;
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private MappedByteBuffer checkpoint;
+
+    /**
+     * Read position: next record to relay.
+     */
+    private long readSegmentId;
+    private int readOffset;
+
+    /**
+     * Records appended but not yet committed by the relay.
+     */
+    private long pending;
+
+    @PostConstruct
+    synchronized void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        spoolDir = Paths.get(directory);
+        Files.createDirectories(spoolDir);
+        lock();
+
+        try (Stream<Path> files = Files.list(spoolDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    long id = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                    segments.put(id, Segment.open(file, id, segmentBytes));
+                }
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(spoolDir.resolve("checkpoint"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            checkpoint = channel.map(FileChannel.MapMode.READ_WRITE, 0, 16);
+        }
+        readSegmentId = checkpoint.getLong(0);
+        readOffset = checkpoint.getInt(8);
+
+        if (segments.isEmpty()) {
+            segments.put(0L, Segment.create(segmentPath(0), 0, segmentBytes));
+            readSegmentId = 0;
+            readOffset = 0;
+        }
+        if (!segments.containsKey(readSegmentId)) {
+            // Checkpoint missing or older than the first remaining segment
+            readSegmentId = segments.firstKey();
+            readOffset = 0;
+        }
+
+        for (Segment segment : segments.values()) {
+            segment.recover();
+        }
+        pending = countFrom(readSegmentId, readOffset);
+        log.info("Opened notification spool at {} with {} segments and {} pending events", spoolDir, segments.size(), pending);
+    }
+
+    private void lock() throws IOException {
+        lockChannel = FileChannel.open(spoolDir.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Held by another spool in this JVM
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Notification spool directory " + spoolDir
+                    + " is in use by another instance; give each instance its own notification.spool.directory");
+        }
+    }
+
+    /**
+     * Appends an event.
+     * 
+     * @param event the event
+     * @throws IllegalStateException if the spool is disabled or full
+     */
+    public synchronized void append(NotificationEvent event) {
+        if (!enabled) {
+            throw new IllegalStateException("Notification spool is disabled");
+        }
+        byte[] data = NotificationEventCodec.encode(event);
+        if (data.length + HEADER_BYTES > segmentBytes) {
+            throw new IllegalStateException("Event of " + data.length + " bytes exceeds the spool segment size");
+        }
+
+        Segment segment = segments.lastEntry().getValue();
+        if (segment.writeOffset + HEADER_BYTES + data.length > segmentBytes) {
+            if (segments.size() >= maxSegments) {
+                throw new IllegalStateException("Notification spool is full (" + pending + " events pending)");
+            }
+            long nextId = segment.id + 1;
+            try {
+                segment = Segment.create(segmentPath(nextId), nextId, segmentBytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            segments.put(nextId, segment);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        MappedByteBuffer buffer = segment.buffer;
+        int offset = segment.writeOffset;
+        buffer.put(offset + HEADER_BYTES, data);
+        buffer.putInt(offset + 4, (int) crc.getValue());
+        // Length last: a reader never sees a length without the bytes it covers
+        buffer.putInt(offset, data.length);
+        segment.writeOffset = offset + HEADER_BYTES + data.length;
+        if (fsync) {
+            buffer.force(offset, HEADER_BYTES + data.length);
+        }
+        pending++;
+    }
+
+    /**
+     * Reads the oldest unrelayed events without consuming them.
+     * 
+     * @param max maximum number of events
+     * @return events in append order, each with the position just after it
+     */
+    public synchronized List<SpooledEvent> read(int max) {
+        List<SpooledEvent> result = new ArrayList<>(Math.min(max, (int) Math.min(pending, Integer.MAX_VALUE)));
+        if (!enabled || pending == 0) {
+            return result;
+        }
+        long segmentId = readSegmentId;
+        int offset = readOffset;
+        while (result.size() < max) {
+            Segment segment = segments.get(segmentId);
+            if (segment == null) {
+                break;
+            }
+            if (offset >= segment.writeOffset) {
+                Map.Entry<Long, Segment> next = segments.higherEntry(segmentId);
+                if (next == null) {
+                    break;
+                }
+                segmentId = next.getKey();
+                offset = 0;
+                continue;
+            }
+            int length = segment.buffer.getInt(offset);
+            byte[] data = new byte[length];
+            segment.buffer.get(offset + HEADER_BYTES, data);
+            offset += HEADER_BYTES + length;
+            try {
+                result.add(new SpooledEvent(NotificationEventCodec.decode(data), segmentId, offset));
+            } catch (IllegalArgumentException e) {
+                log.error("Dropping undecodable spooled event at segment {} offset {}", segmentId, offset - HEADER_BYTES - length, e);
+                result.add(new SpooledEvent(null, segmentId, offset));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Marks events up to and including {@code last} as relayed.
+     * 
+     * @param last the last relayed event of a previous {@link #read(int)}
+     * @param count number of events being committed
+     */
+    public synchronized void commit(SpooledEvent last, int count) {
+        readSegmentId = last.segmentId();
+        readOffset = last.nextOffset();
+        checkpoint.putLong(0, readSegmentId);
+        checkpoint.putInt(8, readOffset);
+        pending = Math.max(0, pending - count);
+
+        // Drop segments that are fully relayed and no longer written to
+        while (segments.firstKey() < readSegmentId) {
+            Segment relayed = segments.pollFirstEntry().getValue();
+            try {
+                Files.deleteIfExists(relayed.path);
+            } catch (IOException e) {
+                log.warn("Failed to delete relayed spool segment {}: {}", relayed.path, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return number of spooled events not yet relayed
+     */
+    public synchronized long size() {
+        return pending;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        for (Segment segment : segments.values()) {
+            segment.buffer.force();
+        }
+        if (checkpoint != null) {
+            checkpoint.force();
+        }
+        if (lockChannel != null) {
+            try {
+                // Closing the channel releases the lock
+                lockChannel.close();
+            } catch (IOException e) {
+                log.warn("Failed to release notification spool lock in {}: {}", spoolDir, e.getMessage());
+            }
+        }
+    }
+
+    private long countFrom(long segmentId, int offset) {
+        long count = 0;
+        for (Segment segment : segments.tailMap(segmentId, true).values()) {
+            int position = segment.id == segmentId ? offset : 0;
+            while (position < segment.writeOffset) {
+                position += HEADER_BYTES + segment.buffer.getInt(position);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private Path segmentPath(long id) {
+        return spoolDir.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * One position in the spool and the event stored just before it.
+     * 
+     * @param event the event, or null if it could not be decoded
+     * @param segmentId segment holding the event
+     * @param nextOffset offset just past the event
+     */
+    public record SpooledEvent(NotificationEvent event, long segmentId, int nextOffset) {
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private int writeOffset;
+
+        private Segment(long id, Path path, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        private static Segment create(Path path, long id, int size) throws IOException {
+            return open(path, id, size);
+        }
+
+        private static Segment open(Path path, long id, int size) throws IOException {
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // The mapping stays valid after the channel is closed; new files are zero-filled
+                return new Segment(id, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            }
+        }
+
+        /**
+         * Finds the end of the valid records and clears anything after it (a torn last write).
+         */
+        private void recover() {
+            int position = 0;
+            int capacity = buffer.capacity();
+            while (position + HEADER_BYTES <= capacity) {
+                int length = buffer.getInt(position);
+                if (length <= 0 || position + HEADER_BYTES + length > capacity) {
+                    break;
+                }
+                byte[] data = new byte[length];
+                buffer.get(position + HEADER_BYTES, data);
+                CRC32 crc = new CRC32();
+                crc.update(data);
+                if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                    break;
+                }
+                position += HEADER_BYTES + length;
+            }
+            writeOffset = position;
+            if (position + 4 <= capacity && buffer.getInt(position) != 0) {
+                log.warn("Discarding torn record at offset {} of spool segment {}", position, path);
+                for (int i = position; i < capacity; i++) {
+                    buffer.put(i, (byte) 0);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.notifyah.notification.spool;
+
+import com.notifyah.notification.dto.NotificationEvent;
+import com.notifyah.notification.service.NotificationEventPublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the local {@link EventSpool} to Kafka in batches while the broker is reachable.
+ *
+ * <p>Each batch is sent without waiting between records; the spool checkpoint advances over the longest prefix
+ * of the batch that Kafka acknowledged, so a failure part-way re-sends the remainder later (at-least-once).
+ * An event that fails by itself rather than through the broker (see {@link NotificationEventPublisher#isBrokerFailure})
+ * would fail on every run and hold back the whole spool, so it is logged and skipped.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SpoolRelay {
+
+    private final EventSpool eventSpool;
+    private final BrokerCircuitBreaker circuitBreaker;
+    private final NotificationEventPublisher notificationEventPublisher;
+
+    @Value("${notification.spool.relay-batch-size:500}")
+    private int batchSize;
+
+    @Value("${notification.spool.relay-ack-timeout-ms:10000}")
+    private long ackTimeoutMillis;
+
+    /**
+     * Maximum time one run keeps relaying before yielding the scheduler thread.
+     */
+    @Value("${notification.spool.relay-max-run-ms:2000}")
+    private long maxRunMillis;
+
+    @Scheduled(fixedDelayString = "${notification.spool.relay-interval-ms:200}")
+    public void relay() {
+        if (!eventSpool.isEnabled() || eventSpool.size() == 0) {
+            return;
+        }
+        long deadline = System.currentTimeMillis() + maxRunMillis;
+        int relayed = 0;
+        while (eventSpool.size() > 0 && System.currentTimeMillis() < deadline && circuitBreaker.allowRequest()) {
+            int sent = relayBatch();
+            if (sent < 0) {
+                break;
+            }
+            relayed += sent;
+        }
+        if (relayed > 0) {
+            log.info("Relayed {} spooled notification events to Kafka, {} still spooled", relayed, eventSpool.size());
+        }
+    }
+
+    /**
+     * @return number of events committed, or -1 if the batch failed
+     */
+    private int relayBatch() {
+        List<EventSpool.SpooledEvent> batch = eventSpool.read(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> futures = new ArrayList<>(batch.size());
+        try {
+            for (EventSpool.SpooledEvent spooled : batch) {
+                NotificationEvent event = spooled.event();
+                try {
+                    futures.add(event != null ? notificationEventPublisher.publish(event) : CompletableFuture.completedFuture(null));
+                } catch (Exception e) {
+                    // Recorded in place so the records already sent are still awaited before classifying it
+                    futures.add(CompletableFuture.failedFuture(e));
+                    break;
+                }
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(ackTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            int acknowledged = acknowledgedPrefix(futures);
+            Throwable cause = failureAt(futures, acknowledged);
+            if (cause == null || NotificationEventPublisher.isBrokerFailure(cause)) {
+                circuitBreaker.recordFailure();
+            } else {
+                circuitBreaker.recordNonBrokerFailure();
+                log.error("Dropping spooled notification event that cannot be sent: {}", batch.get(acknowledged).event(), cause);
+                acknowledged++;
+            }
+            if (acknowledged > 0) {
+                eventSpool.commit(batch.get(acknowledged - 1), acknowledged);
+            }
+            log.warn("Relaying spooled notification events failed after {} of {}: {}", acknowledged, batch.size(), e.getMessage());
+            return -1;
+        }
+
+        circuitBreaker.recordSuccess();
+        eventSpool.commit(batch.get(batch.size() - 1), batch.size());
+        return batch.size();
+    }
+
+    /**
+     * @return failure of the first unacknowledged event, or null if it has not completed
+     */
+    private static Throwable failureAt(List<CompletableFuture<?>> futures, int index) {
+        if (index >= futures.size() || !futures.get(index).isCompletedExceptionally()) {
+            return null;
+        }
+        try {
+            futures.get(index).join();
+            return null;
+        } catch (CompletionException e) {
+            return e.getCause();
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    private static int acknowledgedPrefix(List<CompletableFuture<?>> futures) {
+        int count = 0;
+        for (CompletableFuture<?> future : futures) {
+            if (!future.isDone() || future.isCompletedExceptionally()) {
+                break;
+            }
+            count++;
+        }
+        return count;
+    }
+}
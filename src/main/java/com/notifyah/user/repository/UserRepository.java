@@ -2,6 +2,7 @@ package com.notifyah.user.repository;
 
 import com.notifyah.user.entity.User;
 import com.notifyah.user.entity.UserRole;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -47,4 +48,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @Query("SELECT u FROM User u JOIN u.roles r WHERE r = :role AND u.status = 'ACTIVE'")
     List<User> findActiveUsersByRole(@Param("role") UserRole role);
+
+    /**
+     * Find IDs of active users by role, one keyset page at a time.
+     * Reads only the ID column so audiences of any size can be streamed in constant memory.
+     *
+     * @param role the role
+     * @param afterId exclusive lower bound on the user ID (0 for the first page)
+     * @param pageable page size (the page number is ignored by the keyset condition; use page 0)
+     * @return user IDs in ascending order
+     */
+    @Query("SELECT u.id FROM User u JOIN u.roles r WHERE r = :role AND u.status = 'ACTIVE' AND u.id > :afterId ORDER BY u.id")
+    List<Long> findActiveUserIdsByRoleAfter(@Param("role") UserRole role, @Param("afterId") Long afterId, Pageable pageable);
 } 
\ No newline at end of file
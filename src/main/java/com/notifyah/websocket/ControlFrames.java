@@ -0,0 +1,27 @@
+package com.notifyah.websocket;
+
+import org.springframework.web.socket.TextMessage;
+
+/**
+ * Non-notification frames sent from the server to clients.
+ */
+public final class ControlFrames {
+
+    /**
+     * Tells the client that frames were dropped because it read too slowly; it should refetch via REST.
+     */
+    public static final TextMessage RESYNC_OVERFLOW = resync("overflow");
+
+    /**
+     * Tells the client that more notifications were missed than a reconnect replays; it should refetch via REST.
+     */
+    public static final TextMessage RESYNC_REPLAY_LIMIT = resync("replay-limit");
+
+    private static TextMessage resync(String reason) {
+        return new TextMessage("{\"type\":\"RESYNC\",\"reason\":\"" + reason + "\"}");
+    }
+
+    private ControlFrames() {
+        // Constants holder
+    }
+}
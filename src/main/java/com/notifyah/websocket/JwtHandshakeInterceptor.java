@@ -1,14 +1,17 @@
 package com.notifyah.websocket;
 
 import com.notifyah.common.security.JwtTokenProvider;
+import com.notifyah.common.security.VerifiedToken;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * JWT handshake interceptor for WebSocket authentication.
@@ -34,14 +37,20 @@ public class JwtHandshakeInterceptor implements HandshakeInterceptor {
             return false;
         }
         
-        if (!jwtTokenProvider.validateToken(token)) {
+        Optional<VerifiedToken> verified = jwtTokenProvider.verify(token);
+        if (verified.isEmpty()) {
             log.warn("WebSocket handshake rejected: Invalid JWT token");
             return false;
         }
         
         try {
-            Long userId = jwtTokenProvider.getUserId(token);
+            Long userId = verified.get().userId();
             attributes.put("userId", userId);
+            
+            Long lastSeenId = extractLastSeenId(request);
+            if (lastSeenId != null) {
+                attributes.put(NotificationWebSocketHandler.LAST_SEEN_ID_ATTRIBUTE, lastSeenId);
+            }
             log.info("WebSocket handshake accepted for user: {}", userId);
             return true;
         } catch (Exception e) {
@@ -84,11 +93,27 @@ public class JwtHandshakeInterceptor implements HandshakeInterceptor {
         }
         
         // 3. Check query parameter
-        String tokenParam = request.getURI().getQuery();
-        if (tokenParam != null && tokenParam.startsWith("token=")) {
-            return tokenParam.substring(6);
+        return UriComponentsBuilder.fromUri(request.getURI()).build()
+                .getQueryParams()
+                .getFirst("token");
+    }
+
+    /**
+     * Extract the optional last-seen notification ID used to replay missed notifications
+     * (query parameter {@code lastSeenId}).
+     */
+    private Long extractLastSeenId(org.springframework.http.server.ServerHttpRequest request) {
+        String lastSeenId = UriComponentsBuilder.fromUri(request.getURI()).build()
+                .getQueryParams()
+                .getFirst(NotificationWebSocketHandler.LAST_SEEN_ID_ATTRIBUTE);
+        if (lastSeenId == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(lastSeenId);
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring invalid lastSeenId on WebSocket handshake: {}", lastSeenId);
+            return null;
         }
-        
-        return null;
     }
 } 
\ No newline at end of file
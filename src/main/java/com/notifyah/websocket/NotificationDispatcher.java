@@ -0,0 +1,103 @@
+package com.notifyah.websocket;
+
+import com.notifyah.websocket.cluster.DeliveryBackplane;
+import com.notifyah.websocket.cluster.SessionLocationRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Routes encoded frames to wherever in the cluster the recipients are connected.
+ *
+ * <p>Sessions on this node are always served directly. With a backplane configured,
+ * the {@link SessionLocationRegistry} is consulted once per dispatch call and every other node
+ * holding the recipient receives the frame exactly once over the {@link DeliveryBackplane}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationDispatcher {
+
+    private final NotificationWebSocketHandler webSocketHandler;
+    private final SessionLocationRegistry locationRegistry;
+    private final DeliveryBackplane deliveryBackplane;
+
+    @Value("${websocket.cluster.node-id}")
+    private String nodeId;
+
+    @Value("${websocket.cluster.backplane:none}")
+    private String backplane;
+
+    /**
+     * Delivers a frame to all sessions of a user, on any node.
+     * 
+     * @param userId the recipient user ID
+     * @param frame the encoded frame
+     */
+    public void dispatch(Long userId, TextMessage frame) {
+        dispatch(List.of(userId), Function.identity(), id -> frame);
+    }
+
+    /**
+     * Delivers a batch of items, looking up recipient locations in a single registry call.
+     * Frames are encoded only for recipients connected somewhere in the cluster,
+     * so offline recipients cost no serialization.
+     * 
+     * @param items the items to deliver, e.g. saved notifications
+     * @param recipientOf extracts the recipient user ID of an item
+     * @param encoder encodes an item into a frame
+     * @param <T> the item type
+     */
+    public <T> void dispatch(List<T> items, Function<T, Long> recipientOf, Function<T, TextMessage> encoder) {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Set<String>> locations = Map.of();
+        if (!"none".equals(backplane)) {
+            Set<Long> userIds = new HashSet<>();
+            for (T item : items) {
+                userIds.add(recipientOf.apply(item));
+            }
+            try {
+                locations = locationRegistry.locate(userIds);
+            } catch (Exception e) {
+                log.warn("Session location lookup failed, delivering to local sessions only: {}", e.getMessage());
+            }
+        }
+
+        for (T item : items) {
+            Long userId = recipientOf.apply(item);
+            boolean local = webSocketHandler.hasLocalSessions(userId);
+            Set<String> nodes = locations.getOrDefault(userId, Set.of());
+            if (!local && (nodes.isEmpty() || nodes.equals(Set.of(nodeId)))) {
+                continue;
+            }
+
+            TextMessage frame;
+            try {
+                frame = encoder.apply(item);
+            } catch (Exception e) {
+                log.warn("Failed to encode frame for user {}: {}", userId, e.getMessage());
+                continue;
+            }
+
+            if (local) {
+                webSocketHandler.sendToUser(userId, frame);
+            }
+            for (String targetNode : nodes) {
+                if (!targetNode.equals(nodeId)) {
+                    deliveryBackplane.publish(targetNode, userId, frame);
+                }
+            }
+        }
+    }
+}
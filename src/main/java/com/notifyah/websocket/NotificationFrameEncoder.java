@@ -0,0 +1,88 @@
+package com.notifyah.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.notifyah.notification.dto.NotificationPushMessage;
+import com.notifyah.notification.entity.Notification;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
+
+/**
+ * Encodes notifications into WebSocket frames exactly once.
+ * The resulting {@link TextMessage} is immutable and is shared by every session it is queued on,
+ * so pushing to several devices (or many recipients) does not re-serialize the payload.
+ */
+@Component
+public class NotificationFrameEncoder {
+
+    private final ObjectWriter pushWriter;
+
+    public NotificationFrameEncoder(ObjectMapper objectMapper) {
+        // Resolve the serializer once instead of on every writeValueAsString call
+        this.pushWriter = objectMapper.writerFor(NotificationPushMessage.class);
+    }
+
+    /**
+     * Encodes a saved notification into a shareable frame.
+     * 
+     * @param notification the saved notification
+     * @return text frame carrying the push DTO as JSON
+     * @throws IllegalStateException if the notification cannot be serialized
+     */
+    public TextMessage encode(Notification notification) {
+        return encode(NotificationPushMessage.fromEntity(notification));
+    }
+
+    /**
+     * Serializes everything but the ID once, for notifications that differ only by ID
+     * (one event fanned out to many recipients).
+     * 
+     * @param template push DTO with a null ID
+     * @return shared frame body from which per-recipient frames are cut without re-serializing
+     */
+    public SharedFrame encodeShared(NotificationPushMessage template) {
+        try {
+            // {"type":...} (the null ID is omitted) -> "type":...}
+            String json = pushWriter.writeValueAsString(template);
+            return new SharedFrame(json.substring(1));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode shared notification frame", e);
+        }
+    }
+
+    /**
+     * A frame serialized once for a whole audience; only the notification ID is spliced in per recipient.
+     */
+    public static final class SharedFrame {
+
+        private final String bodyAfterId;
+
+        private SharedFrame(String bodyAfterId) {
+            this.bodyAfterId = bodyAfterId;
+        }
+
+        /**
+         * @param notificationId the recipient's notification ID
+         * @return frame identical to encoding the full DTO with that ID
+         */
+        public TextMessage forId(Long notificationId) {
+            return new TextMessage("{\"id\":" + notificationId + "," + bodyAfterId);
+        }
+    }
+
+    /**
+     * Encodes a push DTO into a shareable frame.
+     * 
+     * @param message the push DTO
+     * @return text frame carrying the DTO as JSON
+     * @throws IllegalStateException if the message cannot be serialized
+     */
+    public TextMessage encode(NotificationPushMessage message) {
+        try {
+            return new TextMessage(pushWriter.writeValueAsString(message));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode notification " + message.getId(), e);
+        }
+    }
+}
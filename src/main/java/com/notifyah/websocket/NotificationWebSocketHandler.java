@@ -1,7 +1,9 @@
 package com.notifyah.websocket;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.notifyah.notification.entity.Notification;
+import com.notifyah.notification.service.NotificationReplayService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -9,8 +11,7 @@ import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
-import java.io.IOException;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
 
 /**
  * WebSocket handler for real-time notification delivery.
@@ -21,17 +22,22 @@ import java.util.concurrent.ConcurrentHashMap;
 @RequiredArgsConstructor
 public class NotificationWebSocketHandler extends TextWebSocketHandler {
 
-    private final ObjectMapper objectMapper;
-    
     /**
-     * Thread-safe map to store user WebSocket sessions.
-     * Key: userId, Value: WebSocketSession
+     * Session attribute holding the last notification ID the client saw before reconnecting.
      */
-    private final ConcurrentHashMap<Long, WebSocketSession> userSessions = new ConcurrentHashMap<>();
+    public static final String LAST_SEEN_ID_ATTRIBUTE = "lastSeenId";
+
+    private final ObjectMapper objectMapper;
+    private final NotificationFrameEncoder frameEncoder;
+    private final WebSocketSessionRegistry sessionRegistry;
+    private final SessionWriterPool sessionWriterPool;
+    private final NotificationReplayService replayService;
 
     /**
      * Called when a WebSocket connection is established.
-     * Extracts the userId from session attributes and stores the session.
+     * Extracts the userId from session attributes and registers the session
+     * alongside any other open sessions of the same user.
+     * If the handshake carried a last-seen notification ID, missed notifications are replayed.
      * 
      * @param session the WebSocket session
      */
@@ -40,8 +46,15 @@ public class NotificationWebSocketHandler extends TextWebSocketHandler {
         try {
             Long userId = getUserIdFromSession(session);
             if (userId != null) {
-                userSessions.put(userId, session);
-                log.info("WebSocket connection established for user: {}", userId);
+                OutboundSession outbound = sessionWriterPool.open(session);
+                // Register before replaying so nothing committed in between is missed
+                sessionRegistry.register(userId, outbound);
+                log.info("WebSocket connection established for user: {} (session: {})", userId, session.getId());
+                
+                Object lastSeenId = session.getAttributes().get(LAST_SEEN_ID_ATTRIBUTE);
+                if (lastSeenId instanceof Long) {
+                    replayMissed(userId, (Long) lastSeenId, outbound);
+                }
             } else {
                 log.warn("WebSocket connection established but no userId found in session attributes");
             }
@@ -50,9 +63,50 @@ public class NotificationWebSocketHandler extends TextWebSocketHandler {
         }
     }
 
+    /**
+     * Handles client messages. Supports {@code {"type":"RESUME","lastSeenId":<id>}},
+     * which replays notifications newer than the given ID (for clients that cannot set it on the handshake).
+     * 
+     * @param session the WebSocket session
+     * @param message the client message
+     */
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        Long userId = getUserIdFromSession(session);
+        if (userId == null) {
+            return;
+        }
+        try {
+            JsonNode command = objectMapper.readTree(message.getPayload());
+            if ("RESUME".equals(command.path("type").asText()) && command.path("lastSeenId").canConvertToLong()) {
+                OutboundSession outbound = sessionRegistry.find(userId, session);
+                if (outbound != null) {
+                    replayMissed(userId, command.path("lastSeenId").asLong(), outbound);
+                }
+            } else {
+                log.debug("Ignoring unsupported WebSocket message from user {}: {}", userId, message.getPayload());
+            }
+        } catch (Exception e) {
+            log.debug("Ignoring malformed WebSocket message from user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Queues notifications newer than the client's last-seen ID ahead of further live pushes.
+     * A notification committed during the replay may arrive twice; clients de-duplicate by ID.
+     */
+    private void replayMissed(Long userId, long lastSeenId, OutboundSession outbound) {
+        try {
+            int replayed = replayService.replay(userId, lastSeenId, outbound::enqueue);
+            log.info("Replayed {} missed notifications to user {} (session: {})", replayed, userId, outbound.getSession().getId());
+        } catch (Exception e) {
+            log.warn("Failed to replay missed notifications to user {}: {}", userId, e.getMessage());
+        }
+    }
+
     /**
      * Called when a WebSocket connection is closed.
-     * Removes the user session from the session map.
+     * Removes exactly this session, leaving the user's other sessions registered.
      * 
      * @param session the WebSocket session
      * @param status the close status
@@ -62,8 +116,11 @@ public class NotificationWebSocketHandler extends TextWebSocketHandler {
         try {
             Long userId = getUserIdFromSession(session);
             if (userId != null) {
-                userSessions.remove(userId);
-                log.info("WebSocket connection closed for user: {}", userId);
+                OutboundSession outbound = sessionRegistry.unregister(userId, session);
+                if (outbound != null) {
+                    outbound.close();
+                }
+                log.info("WebSocket connection closed for user: {} (session: {})", userId, session.getId());
             }
         } catch (Exception e) {
             log.error("Error handling WebSocket connection close", e);
@@ -71,37 +128,56 @@ public class NotificationWebSocketHandler extends TextWebSocketHandler {
     }
 
     /**
-     * Sends a notification to a specific user via WebSocket.
+     * Queues a notification for every open session of a specific user.
+     * The notification is encoded once and the same frame is shared by all sessions.
      * 
      * @param userId the ID of the user to send the notification to
      * @param notification the notification to send
      */
     public void sendToUser(Long userId, Notification notification) {
-        WebSocketSession session = userSessions.get(userId);
-        
-        if (session == null) {
+        if (sessionRegistry.getSessions(userId).isEmpty()) {
             log.debug("User {} is not connected, notification will not be delivered", userId);
             return;
         }
+        sendToUser(userId, frameEncoder.encode(notification));
+    }
+
+    /**
+     * Queues an already encoded frame for every open session of a specific user.
+     * Never blocks on the network: frames are written by the session writer pool,
+     * so a slow client cannot stall the calling (Kafka consumer) thread.
+     * 
+     * @param userId the ID of the user to send the frame to
+     * @param frame the encoded frame, shared across sessions
+     */
+    public void sendToUser(Long userId, TextMessage frame) {
+        List<OutboundSession> sessions = sessionRegistry.getSessions(userId);
         
-        if (!session.isOpen()) {
-            log.debug("User {} session is closed, removing from session map", userId);
-            userSessions.remove(userId);
+        if (sessions.isEmpty()) {
+            log.debug("User {} is not connected, frame will not be delivered", userId);
             return;
         }
         
-        try {
-            String json = objectMapper.writeValueAsString(notification);
-            TextMessage message = new TextMessage(json);
-            session.sendMessage(message);
-            log.info("Notification sent to user {}: {}", userId, notification.getId());
-        } catch (IOException e) {
-            log.error("Error sending notification to user {}: {}", userId, notification.getId(), e);
-            // Remove the session if there's an error sending
-            userSessions.remove(userId);
+        for (OutboundSession session : sessions) {
+            if (session.enqueue(frame)) {
+                log.debug("Frame queued for user {} (session: {})", userId, session.getSession().getId());
+            } else {
+                log.debug("User {} session {} is closed, removing from registry", userId, session.getSession().getId());
+                sessionRegistry.unregister(userId, session.getSession());
+            }
         }
     }
 
+    /**
+     * Checks whether the user has any session registered on this node.
+     * 
+     * @param userId the ID of the user to check
+     * @return true if at least one local session is registered
+     */
+    public boolean hasLocalSessions(Long userId) {
+        return sessionRegistry.hasSessions(userId);
+    }
+
     /**
      * Checks if a user is currently connected via WebSocket.
      * 
@@ -109,17 +185,34 @@ public class NotificationWebSocketHandler extends TextWebSocketHandler {
      * @return true if the user is connected and their session is open
      */
     public boolean isUserConnected(Long userId) {
-        WebSocketSession session = userSessions.get(userId);
-        return session != null && session.isOpen();
+        return sessionRegistry.isConnected(userId);
     }
 
     /**
      * Gets the number of currently connected users.
      * 
-     * @return the number of active WebSocket sessions
+     * @return the number of users with at least one WebSocket session
      */
     public int getConnectedUsersCount() {
-        return userSessions.size();
+        return sessionRegistry.getConnectedUserCount();
+    }
+
+    /**
+     * Gets the number of open WebSocket sessions across all users.
+     * 
+     * @return the number of registered WebSocket sessions
+     */
+    public int getSessionCount() {
+        return sessionRegistry.getSessionCount();
+    }
+
+    /**
+     * Gets the number of frames queued for delivery across all sessions.
+     * 
+     * @return the number of frames not yet written to clients
+     */
+    public long getQueuedFrameCount() {
+        return sessionWriterPool.getQueuedFrameCount();
     }
 
     /**
@@ -0,0 +1,193 @@
+package com.notifyah.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A WebSocket session with a bounded outbound buffer drained by a writer pool.
+ *
+ * <p>{@link #enqueue} never blocks: callers (Kafka consumer threads) only append to the buffer.
+ * At most one writer task drains a given session at a time, which also guarantees the
+ * single-writer access the underlying session requires. When the buffer is full the
+ * configured {@link OverflowPolicy} applies, so a slow client only ever affects itself.
+ *
+ * <p>Writes block the writer thread, so a stalled client could otherwise hold it indefinitely.
+ * Each send is bounded by {@code websocket.outbound.send-time-limit-ms}: the container aborts a
+ * blocking send that exceeds it (see {@link SessionWriterPool}), and a send that completes but took
+ * longer than the limit closes the session as well, before it can occupy a writer thread again.
+ */
+@Slf4j
+public class OutboundSession {
+
+    private final WebSocketSession session;
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final int drainBatchSize;
+    private final Executor writer;
+    private final AtomicLong globalQueued;
+    private final long sendTimeLimitNanos;
+
+    private final ArrayDeque<WebSocketMessage<?>> queue = new ArrayDeque<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private boolean closed;
+
+    OutboundSession(WebSocketSession session, int capacity, OverflowPolicy overflowPolicy,
+                    int drainBatchSize, Executor writer, AtomicLong globalQueued, long sendTimeLimitMillis) {
+        this.session = session;
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.drainBatchSize = drainBatchSize;
+        this.writer = writer;
+        this.globalQueued = globalQueued;
+        this.sendTimeLimitNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeLimitMillis);
+    }
+
+    public WebSocketSession getSession() {
+        return session;
+    }
+
+    public boolean isOpen() {
+        synchronized (this) {
+            return !closed && session.isOpen();
+        }
+    }
+
+    /**
+     * Queues a frame for delivery without blocking.
+     * 
+     * @param message the frame to send
+     * @return false if the session is closed or was disconnected by the overflow policy
+     */
+    public boolean enqueue(WebSocketMessage<?> message) {
+        synchronized (this) {
+            if (closed || !session.isOpen()) {
+                return false;
+            }
+            if (queue.size() >= capacity && !applyOverflowPolicy()) {
+                return false;
+            }
+            queue.addLast(message);
+            globalQueued.incrementAndGet();
+        }
+        scheduleDrain();
+        return true;
+    }
+
+    /**
+     * @return number of frames waiting to be written
+     */
+    public int getQueuedCount() {
+        synchronized (this) {
+            return queue.size();
+        }
+    }
+
+    /**
+     * @return number of frames discarded by the overflow policy
+     */
+    public long getDroppedCount() {
+        return droppedFrames.get();
+    }
+
+    /**
+     * Discards queued frames and rejects further ones. Called once the session is closed.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            globalQueued.addAndGet(-queue.size());
+            queue.clear();
+        }
+    }
+
+    /**
+     * Makes room in a full queue. Must be called while holding the lock.
+     * 
+     * @return true if the new frame may be queued
+     */
+    private boolean applyOverflowPolicy() {
+        switch (overflowPolicy) {
+            case DROP_OLDEST -> {
+                queue.pollFirst();
+                globalQueued.decrementAndGet();
+                droppedFrames.incrementAndGet();
+                return true;
+            }
+            case COALESCE -> {
+                droppedFrames.addAndGet(queue.size());
+                globalQueued.addAndGet(1 - queue.size());
+                queue.clear();
+                queue.addLast(ControlFrames.RESYNC_OVERFLOW);
+                return true;
+            }
+            default -> {
+                log.warn("Outbound queue of session {} overflowed ({} frames), disconnecting", session.getId(), capacity);
+                closed = true;
+                globalQueued.addAndGet(-queue.size());
+                droppedFrames.addAndGet(queue.size());
+                queue.clear();
+                writer.execute(this::closeUnreliable);
+                return false;
+            }
+        }
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            writer.execute(this::drain);
+        }
+    }
+
+    /**
+     * Writes up to one batch of frames, then yields the writer thread to other sessions.
+     */
+    private void drain() {
+        try {
+            for (int i = 0; i < drainBatchSize; i++) {
+                WebSocketMessage<?> message;
+                synchronized (this) {
+                    message = queue.pollFirst();
+                    if (message == null) {
+                        // Cleared under the lock so a concurrent enqueue always reschedules
+                        draining.set(false);
+                        return;
+                    }
+                    globalQueued.decrementAndGet();
+                }
+                long started = System.nanoTime();
+                session.sendMessage(message);
+                long elapsed = System.nanoTime() - started;
+                if (elapsed > sendTimeLimitNanos) {
+                    throw new SessionLimitExceededException("send took " + TimeUnit.NANOSECONDS.toMillis(elapsed)
+                            + " ms", CloseStatus.SESSION_NOT_RELIABLE);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Error writing to session {}: {}", session.getId(), e.getMessage());
+            close();
+            closeUnreliable();
+            draining.set(false);
+            return;
+        }
+        // Batch exhausted with frames possibly left: requeue behind other sessions' drains
+        writer.execute(this::drain);
+    }
+
+    private void closeUnreliable() {
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (Exception e) {
+            log.debug("Error closing session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.notifyah.websocket;
+
+/**
+ * What to do when a session's outbound queue is full because the client reads too slowly.
+ */
+public enum OverflowPolicy {
+    /**
+     * Discard the oldest queued frame to make room for the new one.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Replace everything queued with a single resync frame telling the client to refetch.
+     */
+    COALESCE,
+
+    /**
+     * Close the session; the client is expected to reconnect.
+     */
+    DISCONNECT
+}
@@ -0,0 +1,99 @@
+package com.notifyah.websocket;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.websocket.Session;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Owns the writer threads that drain {@link OutboundSession} buffers,
+ * and creates outbound sessions with the configured buffer size and overflow policy.
+ *
+ * <p>Each session's blocking sends are limited to {@code websocket.outbound.send-time-limit-ms}
+ * through Tomcat's per-session blocking send timeout, so a stalled client releases its writer
+ * thread with an error (and is closed) instead of holding it until the TCP connection dies.
+ */
+@Component
+@Slf4j
+public class SessionWriterPool {
+
+    /**
+     * Tomcat's per-session timeout of a blocking send, in milliseconds (default 20 s).
+     */
+    private static final String BLOCKING_SEND_TIMEOUT = "org.apache.tomcat.websocket.BLOCKING_SEND_TIMEOUT";
+
+    @Value("${websocket.outbound.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${websocket.outbound.overflow-policy:DROP_OLDEST}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${websocket.outbound.writer-threads:8}")
+    private int writerThreads;
+
+    @Value("${websocket.outbound.drain-batch-size:64}")
+    private int drainBatchSize;
+
+    @Value("${websocket.outbound.send-time-limit-ms:5000}")
+    private long sendTimeLimitMillis;
+
+    private final AtomicLong queuedFrames = new AtomicLong();
+    private ExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "ws-writer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        executor = Executors.newFixedThreadPool(writerThreads, threadFactory);
+        log.info("WebSocket writer pool started: threads={}, queueCapacity={}, overflowPolicy={}",
+                writerThreads, queueCapacity, overflowPolicy);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Wraps a newly opened session with its own outbound buffer.
+     * 
+     * @param session the WebSocket session
+     * @return outbound session drained by this pool
+     */
+    public OutboundSession open(WebSocketSession session) {
+        limitBlockingSend(session);
+        return new OutboundSession(session, queueCapacity, overflowPolicy, drainBatchSize, executor, queuedFrames,
+                sendTimeLimitMillis);
+    }
+
+    /**
+     * @return frames queued across all sessions and not yet written
+     */
+    public long getQueuedFrameCount() {
+        return queuedFrames.get();
+    }
+
+    private void limitBlockingSend(WebSocketSession session) {
+        if (session instanceof NativeWebSocketSession nativeSession) {
+            Session standardSession = nativeSession.getNativeSession(Session.class);
+            if (standardSession != null) {
+                // Tomcat only honours a Long here
+                standardSession.getUserProperties().put(BLOCKING_SEND_TIMEOUT, sendTimeLimitMillis);
+            }
+        }
+    }
+}
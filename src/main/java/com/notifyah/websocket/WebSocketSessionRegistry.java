@@ -0,0 +1,172 @@
+package com.notifyah.websocket;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of open WebSocket sessions, allowing several sessions (tabs, devices) per user.
+ *
+ * <p>Each user maps to an immutable list of sessions that is replaced on every change.
+ * Changes go through {@link ConcurrentHashMap#compute}, which only locks the hash bin of that user,
+ * so connects and disconnects of different users never contend on a global lock,
+ * and lookups on the delivery path are lock-free.
+ *
+ * <p>Users whose first session opened or last session closed are recorded as changed,
+ * so the cluster presence can be synced from the current state rather than from events.
+ */
+@Component
+public class WebSocketSessionRegistry {
+
+    private final ConcurrentHashMap<Long, List<OutboundSession>> sessionsByUser = new ConcurrentHashMap<>(1024);
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    private final Set<Long> changedUsers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Adds a session for the user, keeping any sessions the user already has open.
+     * 
+     * @param userId the user ID
+     * @param session the newly opened session with its outbound buffer
+     */
+    public void register(Long userId, OutboundSession session) {
+        boolean[] added = new boolean[1];
+        sessionsByUser.compute(userId, (key, sessions) -> {
+            if (sessions == null) {
+                added[0] = true;
+                changedUsers.add(userId);
+                return List.of(session);
+            }
+            if (sessions.contains(session)) {
+                return sessions;
+            }
+            added[0] = true;
+            List<OutboundSession> updated = new ArrayList<>(sessions.size() + 1);
+            updated.addAll(sessions);
+            updated.add(session);
+            return List.copyOf(updated);
+        });
+        if (added[0]) {
+            sessionCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Removes exactly this session; other sessions of the same user stay registered.
+     * 
+     * @param userId the user ID
+     * @param session the session to remove
+     * @return the removed outbound session, or null if it was not registered
+     */
+    public OutboundSession unregister(Long userId, WebSocketSession session) {
+        OutboundSession[] removed = new OutboundSession[1];
+        sessionsByUser.computeIfPresent(userId, (key, sessions) -> {
+            List<OutboundSession> updated = new ArrayList<>(sessions.size());
+            for (OutboundSession outbound : sessions) {
+                if (outbound.getSession() == session) {
+                    removed[0] = outbound;
+                } else {
+                    updated.add(outbound);
+                }
+            }
+            if (removed[0] == null) {
+                return sessions;
+            }
+            if (updated.isEmpty()) {
+                changedUsers.add(userId);
+                return null;
+            }
+            return List.copyOf(updated);
+        });
+        if (removed[0] != null) {
+            sessionCount.decrementAndGet();
+        }
+        return removed[0];
+    }
+
+    /**
+     * Returns a snapshot of the user's registered sessions.
+     * 
+     * @param userId the user ID
+     * @return immutable list of sessions, empty if the user is not connected
+     */
+    public List<OutboundSession> getSessions(Long userId) {
+        List<OutboundSession> sessions = sessionsByUser.get(userId);
+        return sessions != null ? sessions : List.of();
+    }
+
+    /**
+     * Finds the outbound wrapper of a registered session.
+     * 
+     * @param userId the user ID
+     * @param session the WebSocket session
+     * @return the outbound session, or null if the session is not registered
+     */
+    public OutboundSession find(Long userId, WebSocketSession session) {
+        for (OutboundSession outbound : getSessions(userId)) {
+            if (outbound.getSession() == session) {
+                return outbound;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether the user has any registered session on this node.
+     * 
+     * @param userId the user ID
+     * @return true if at least one session is registered
+     */
+    public boolean hasSessions(Long userId) {
+        return sessionsByUser.containsKey(userId);
+    }
+
+    /**
+     * Returns and forgets the users who gained their first or lost their last session
+     * since the previous call.
+     * 
+     * @return IDs of users whose presence on this node may have changed
+     */
+    public List<Long> drainChangedUsers() {
+        List<Long> drained = new ArrayList<>();
+        for (Long userId : changedUsers) {
+            if (changedUsers.remove(userId)) {
+                drained.add(userId);
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Checks whether the user has at least one open session.
+     * 
+     * @param userId the user ID
+     * @return true if any registered session of the user is open
+     */
+    public boolean isConnected(Long userId) {
+        for (OutboundSession session : getSessions(userId)) {
+            if (session.isOpen()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return number of users with at least one registered session
+     */
+    public int getConnectedUserCount() {
+        return sessionsByUser.size();
+    }
+
+    /**
+     * @return number of registered sessions across all users
+     */
+    public int getSessionCount() {
+        return sessionCount.get();
+    }
+}
@@ -0,0 +1,40 @@
+package com.notifyah.websocket.cluster;
+
+import com.notifyah.notification.TopicNames;
+import com.notifyah.websocket.NotificationWebSocketHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
+
+/**
+ * Consumes this node's delivery topic and pushes routed frames to local sessions.
+ * Only active with {@code websocket.cluster.backplane=kafka}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "websocket.cluster.backplane", havingValue = "kafka")
+public class ClusterDeliveryListener {
+
+    private final NotificationWebSocketHandler webSocketHandler;
+
+    /**
+     * Frames routed while this node was down are useless, so consumption starts at the latest offset.
+     * 
+     * @param record key: recipient user ID, value: encoded frame
+     */
+    @KafkaListener(topics = TopicNames.DELIVERY_PREFIX + "${websocket.cluster.node-id}",
+            groupId = "notification-delivery-${websocket.cluster.node-id}",
+            properties = "auto.offset.reset=latest")
+    public void handleDelivery(ConsumerRecord<String, String> record) {
+        try {
+            webSocketHandler.sendToUser(Long.valueOf(record.key()), new TextMessage(record.value()));
+        } catch (Exception e) {
+            log.warn("Error delivering routed frame for user {}: {}", record.key(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.notifyah.websocket.cluster;
+
+import com.notifyah.websocket.WebSocketSessionRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes this node's user presence to the {@link SessionLocationRegistry}.
+ *
+ * <p>Changed users are re-read from the local session registry at sync time, so a disconnect
+ * racing with a reconnect always ends in the correct state. Writes are coalesced per sync interval,
+ * which keeps reconnect storms from turning into one registry write per handshake.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ClusterPresenceSync {
+
+    private final WebSocketSessionRegistry sessionRegistry;
+    private final SessionLocationRegistry locationRegistry;
+
+    @Value("${websocket.cluster.node-id}")
+    private String nodeId;
+
+    @Value("${websocket.cluster.backplane:none}")
+    private String backplane;
+
+    @PostConstruct
+    void clearPreviousRun() {
+        if (isClustered()) {
+            locationRegistry.clearNode(nodeId);
+            log.info("WebSocket cluster node {} joined using {} backplane", nodeId, backplane);
+        }
+    }
+
+    /**
+     * Syncs users whose first session opened or last session closed since the previous run.
+     */
+    @Scheduled(fixedDelayString = "${websocket.cluster.presence-sync-interval-ms:250}")
+    public void syncChangedUsers() {
+        if (!isClustered()) {
+            return;
+        }
+        for (Long userId : sessionRegistry.drainChangedUsers()) {
+            try {
+                if (sessionRegistry.hasSessions(userId)) {
+                    locationRegistry.register(userId, nodeId);
+                } else {
+                    locationRegistry.unregister(userId, nodeId);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to sync presence of user {} on node {}: {}", userId, nodeId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Keeps this node's locations alive in the registry.
+     */
+    @Scheduled(fixedDelayString = "${websocket.cluster.heartbeat-interval-ms:10000}")
+    public void heartbeat() {
+        if (!isClustered()) {
+            return;
+        }
+        try {
+            locationRegistry.heartbeat(nodeId);
+        } catch (Exception e) {
+            log.warn("Failed to heartbeat node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private boolean isClustered() {
+        return !"none".equals(backplane);
+    }
+}
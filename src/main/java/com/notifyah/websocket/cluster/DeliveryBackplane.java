@@ -0,0 +1,18 @@
+package com.notifyah.websocket.cluster;
+
+import org.springframework.web.socket.TextMessage;
+
+/**
+ * Node-to-node channel carrying encoded frames to the node that holds the recipient's sessions.
+ */
+public interface DeliveryBackplane {
+
+    /**
+     * Sends a frame to another node for local delivery to the user's sessions there.
+     * 
+     * @param targetNodeId the node holding the user's sessions
+     * @param userId the recipient user ID
+     * @param frame the encoded frame
+     */
+    void publish(String targetNodeId, Long userId, TextMessage frame);
+}
@@ -0,0 +1,53 @@
+package com.notifyah.websocket.cluster;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process {@link SessionLocationRegistry}.
+ * Serves a single instance, or several simulated nodes sharing one JVM in multi-node tests.
+ */
+public class InMemorySessionLocationRegistry implements SessionLocationRegistry {
+
+    private final ConcurrentHashMap<Long, Set<String>> nodesByUser = new ConcurrentHashMap<>();
+
+    @Override
+    public void register(Long userId, String nodeId) {
+        nodesByUser.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet()).add(nodeId);
+    }
+
+    @Override
+    public void unregister(Long userId, String nodeId) {
+        nodesByUser.computeIfPresent(userId, (key, nodes) -> {
+            nodes.remove(nodeId);
+            return nodes.isEmpty() ? null : nodes;
+        });
+    }
+
+    @Override
+    public Map<Long, Set<String>> locate(Collection<Long> userIds) {
+        Map<Long, Set<String>> result = new HashMap<>();
+        for (Long userId : userIds) {
+            Set<String> nodes = nodesByUser.get(userId);
+            if (nodes != null && !nodes.isEmpty()) {
+                result.put(userId, Set.copyOf(nodes));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void heartbeat(String nodeId) {
+        // Nothing expires in memory
+    }
+
+    @Override
+    public void clearNode(String nodeId) {
+        for (Long userId : nodesByUser.keySet()) {
+            unregister(userId, nodeId);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.notifyah.websocket.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.TextMessage;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * In-process {@link DeliveryBackplane} that hands frames directly to the target node's local delivery.
+ * Lets several simulated nodes in one JVM exercise cross-node routing without a broker.
+ */
+@Slf4j
+public class InProcessDeliveryBackplane implements DeliveryBackplane {
+
+    private final Map<String, BiConsumer<Long, TextMessage>> nodes = new ConcurrentHashMap<>();
+
+    /**
+     * Connects a node's local delivery to the backplane.
+     * 
+     * @param nodeId the node ID
+     * @param localDelivery delivers a frame to the user's sessions on that node
+     */
+    public void attach(String nodeId, BiConsumer<Long, TextMessage> localDelivery) {
+        nodes.put(nodeId, localDelivery);
+    }
+
+    @Override
+    public void publish(String targetNodeId, Long userId, TextMessage frame) {
+        BiConsumer<Long, TextMessage> localDelivery = nodes.get(targetNodeId);
+        if (localDelivery == null) {
+            log.debug("Node {} is not attached, dropping frame for user {}", targetNodeId, userId);
+            return;
+        }
+        localDelivery.accept(userId, frame);
+    }
+}
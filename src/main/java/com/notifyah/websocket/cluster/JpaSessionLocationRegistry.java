@@ -0,0 +1,59 @@
+package com.notifyah.websocket.cluster;
+
+import com.notifyah.websocket.entity.SessionLocation;
+import com.notifyah.websocket.repository.SessionLocationRepository;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Database-backed {@link SessionLocationRegistry} shared by all instances.
+ * A location is live while its node keeps heartbeating; rows of crashed nodes age out after the TTL.
+ */
+@RequiredArgsConstructor
+public class JpaSessionLocationRegistry implements SessionLocationRegistry {
+
+    private final SessionLocationRepository sessionLocationRepository;
+    private final Duration locationTtl;
+
+    @Override
+    public void register(Long userId, String nodeId) {
+        sessionLocationRepository.upsert(userId, nodeId, LocalDateTime.now());
+    }
+
+    @Override
+    public void unregister(Long userId, String nodeId) {
+        sessionLocationRepository.deleteLocation(userId, nodeId);
+    }
+
+    @Override
+    public Map<Long, Set<String>> locate(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Set<String>> result = new HashMap<>();
+        LocalDateTime cutoff = LocalDateTime.now().minus(locationTtl);
+        for (SessionLocation location : sessionLocationRepository.findLive(userIds, cutoff)) {
+            result.computeIfAbsent(location.getUserId(), key -> new HashSet<>()).add(location.getNodeId());
+        }
+        return result;
+    }
+
+    @Override
+    public void heartbeat(String nodeId) {
+        LocalDateTime now = LocalDateTime.now();
+        sessionLocationRepository.touchNode(nodeId, now);
+        sessionLocationRepository.deleteStale(now.minus(locationTtl.multipliedBy(2)));
+    }
+
+    @Override
+    public void clearNode(String nodeId) {
+        sessionLocationRepository.deleteByNode(nodeId);
+    }
+}
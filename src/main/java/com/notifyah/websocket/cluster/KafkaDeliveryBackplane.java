@@ -0,0 +1,28 @@
+package com.notifyah.websocket.cluster;
+
+import com.notifyah.notification.TopicNames;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.web.socket.TextMessage;
+
+/**
+ * Kafka {@link DeliveryBackplane}: each node consumes its own delivery topic
+ * ({@code notification-delivery.<nodeId>}), keyed by recipient user ID.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class KafkaDeliveryBackplane implements DeliveryBackplane {
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+
+    @Override
+    public void publish(String targetNodeId, Long userId, TextMessage frame) {
+        kafkaTemplate.send(TopicNames.deliveryTopic(targetNodeId), String.valueOf(userId), frame.getPayload())
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.warn("Failed to route frame for user {} to node {}: {}", userId, targetNodeId, ex.getMessage());
+                    }
+                });
+    }
+}
@@ -0,0 +1,49 @@
+package com.notifyah.websocket.cluster;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cluster-wide directory of which nodes hold WebSocket sessions for which users.
+ */
+public interface SessionLocationRegistry {
+
+    /**
+     * Records that the user has at least one session on the node.
+     * 
+     * @param userId the user ID
+     * @param nodeId the node ID
+     */
+    void register(Long userId, String nodeId);
+
+    /**
+     * Records that the user no longer has sessions on the node.
+     * 
+     * @param userId the user ID
+     * @param nodeId the node ID
+     */
+    void unregister(Long userId, String nodeId);
+
+    /**
+     * Looks up the nodes currently holding sessions of the given users.
+     * 
+     * @param userIds the user IDs
+     * @return node IDs per user; users without sessions anywhere are absent
+     */
+    Map<Long, Set<String>> locate(Collection<Long> userIds);
+
+    /**
+     * Marks all locations of the node as still alive.
+     * 
+     * @param nodeId the node ID
+     */
+    void heartbeat(String nodeId);
+
+    /**
+     * Forgets every location of the node, e.g. left over from its previous run.
+     * 
+     * @param nodeId the node ID
+     */
+    void clearNode(String nodeId);
+}
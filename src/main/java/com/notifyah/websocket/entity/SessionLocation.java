@@ -0,0 +1,46 @@
+package com.notifyah.websocket.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Entity recording that a user has at least one WebSocket session on a given node.
+ * Rows are refreshed by the owning node's heartbeat and ignored once stale.
+ */
+@Entity
+@Table(name = "websocket_session_locations")
+@IdClass(SessionLocation.Key.class)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionLocation {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Id
+    @Column(name = "node_id", nullable = false, length = 100)
+    private String nodeId;
+
+    @Column(name = "last_seen_at", nullable = false)
+    private LocalDateTime lastSeenAt;
+
+    /**
+     * Composite primary key: (user_id, node_id).
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long userId;
+        private String nodeId;
+    }
+}
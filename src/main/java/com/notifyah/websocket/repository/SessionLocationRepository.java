@@ -0,0 +1,91 @@
+package com.notifyah.websocket.repository;
+
+import com.notifyah.websocket.entity.SessionLocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for SessionLocation entity.
+ */
+@Repository
+public interface SessionLocationRepository extends JpaRepository<SessionLocation, SessionLocation.Key> {
+
+    /**
+     * Find live locations of the given users in one query.
+     * 
+     * @param userIds the IDs of the users
+     * @param cutoff locations not refreshed since this time are considered dead
+     * @return live locations of the users
+     */
+    @Query("SELECT l FROM SessionLocation l WHERE l.userId IN :userIds AND l.lastSeenAt > :cutoff")
+    List<SessionLocation> findLive(@Param("userIds") Collection<Long> userIds, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Insert or refresh the location of a user on a node.
+     * 
+     * @param userId the ID of the user
+     * @param nodeId the ID of the node holding the user's sessions
+     * @param now the refresh timestamp
+     * @return number of rows written
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO websocket_session_locations (user_id, node_id, last_seen_at) " +
+            "VALUES (:userId, :nodeId, :now) " +
+            "ON CONFLICT (user_id, node_id) DO UPDATE SET last_seen_at = EXCLUDED.last_seen_at", nativeQuery = true)
+    int upsert(@Param("userId") Long userId, @Param("nodeId") String nodeId, @Param("now") LocalDateTime now);
+
+    /**
+     * Remove the location of a user on a node.
+     * 
+     * @param userId the ID of the user
+     * @param nodeId the ID of the node
+     * @return number of rows deleted
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SessionLocation l WHERE l.userId = :userId AND l.nodeId = :nodeId")
+    int deleteLocation(@Param("userId") Long userId, @Param("nodeId") String nodeId);
+
+    /**
+     * Refresh every location held by a node.
+     * 
+     * @param nodeId the ID of the node
+     * @param now the refresh timestamp
+     * @return number of rows refreshed
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE SessionLocation l SET l.lastSeenAt = :now WHERE l.nodeId = :nodeId")
+    int touchNode(@Param("nodeId") String nodeId, @Param("now") LocalDateTime now);
+
+    /**
+     * Remove every location held by a node.
+     * 
+     * @param nodeId the ID of the node
+     * @return number of rows deleted
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SessionLocation l WHERE l.nodeId = :nodeId")
+    int deleteByNode(@Param("nodeId") String nodeId);
+
+    /**
+     * Remove locations that have not been refreshed since the cutoff (crashed nodes).
+     * 
+     * @param cutoff staleness threshold
+     * @return number of rows deleted
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SessionLocation l WHERE l.lastSeenAt < :cutoff")
+    int deleteStale(@Param("cutoff") LocalDateTime cutoff);
+}
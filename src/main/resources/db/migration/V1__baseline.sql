@@ -0,0 +1,73 @@
+-- Schema as previously generated by Hibernate (ddl-auto: update).
+-- Idempotent so it can run against a database created before migrations were introduced
+-- (spring.flyway.baseline-version is 0, so this script is applied there too).
+
+CREATE TABLE IF NOT EXISTS users (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username        varchar(50)  NOT NULL UNIQUE,
+    email           varchar(100) NOT NULL UNIQUE,
+    password        varchar(255) NOT NULL,
+    full_name       varchar(100),
+    status          varchar(255) NOT NULL,
+    created_at      timestamp(6) NOT NULL,
+    updated_at      timestamp(6),
+    last_login_at   timestamp(6),
+    email_verified  boolean      NOT NULL DEFAULT false
+);
+
+CREATE TABLE IF NOT EXISTS user_roles (
+    user_id  bigint NOT NULL REFERENCES users (id),
+    role     varchar(255)
+);
+
+CREATE TABLE IF NOT EXISTS notifications (
+    id            bigint       NOT NULL PRIMARY KEY,
+    recipient_id  bigint       NOT NULL,
+    type          varchar(255) NOT NULL,
+    content       varchar(300) NOT NULL,
+    redirect_url  varchar(500),
+    is_read       boolean      NOT NULL,
+    created_at    timestamp(6) NOT NULL,
+    entity_id     bigint,
+    actor_count   integer,
+    actor_sample  varchar(200)
+);
+
+-- Columns added after the original schema; a database created by ddl-auto before them lacks them,
+-- and the CREATE above leaves its existing table as it is
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS entity_id bigint;
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS actor_count integer;
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS actor_sample varchar(200);
+
+CREATE INDEX IF NOT EXISTS idx_notifications_recipient_id_id ON notifications (recipient_id, id DESC);
+
+CREATE TABLE IF NOT EXISTS notification_unread_counters (
+    user_id       bigint       NOT NULL,
+    type          varchar(32)  NOT NULL,
+    unread_count  bigint       NOT NULL,
+    updated_at    timestamp(6) NOT NULL,
+    PRIMARY KEY (user_id, type)
+);
+
+CREATE TABLE IF NOT EXISTS notification_event_receipts (
+    event_id      uuid         NOT NULL,
+    recipient_id  bigint       NOT NULL,
+    created_at    timestamp(6) NOT NULL,
+    PRIMARY KEY (event_id, recipient_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_notification_event_receipts_created_at ON notification_event_receipts (created_at);
+
+CREATE TABLE IF NOT EXISTS notification_read_state (
+    user_id     bigint       NOT NULL PRIMARY KEY,
+    read_up_to  bigint       NOT NULL,
+    read_ids    bigint[]     NOT NULL,
+    updated_at  timestamp(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS websocket_session_locations (
+    user_id       bigint       NOT NULL,
+    node_id       varchar(100) NOT NULL,
+    last_seen_at  timestamp(6) NOT NULL,
+    PRIMARY KEY (user_id, node_id)
+);
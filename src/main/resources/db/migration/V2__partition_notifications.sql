@@ -0,0 +1,91 @@
+-- Range-partition notifications by created_at into monthly partitions named notifications_pYYYYMM.
+-- The primary key has to include the partition key; IDs stay unique because they are Snowflake IDs.
+
+ALTER TABLE notifications RENAME TO notifications_unpartitioned;
+ALTER TABLE notifications_unpartitioned RENAME CONSTRAINT notifications_pkey TO notifications_unpartitioned_pkey;
+ALTER INDEX idx_notifications_recipient_id_id RENAME TO idx_notifications_unpartitioned_recipient_id_id;
+
+CREATE TABLE notifications (
+    id            bigint       NOT NULL,
+    recipient_id  bigint       NOT NULL,
+    type          varchar(255) NOT NULL,
+    content       varchar(300) NOT NULL,
+    redirect_url  varchar(500),
+    is_read       boolean      NOT NULL,
+    created_at    timestamp(6) NOT NULL,
+    entity_id     bigint,
+    actor_count   integer,
+    actor_sample  varchar(200),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Created on the parent, so every partition (present and future) gets its own copy
+CREATE INDEX idx_notifications_recipient_id_id ON notifications (recipient_id, id DESC);
+
+-- Creates the missing monthly partitions for the months from from_month through to_month.
+-- Returns the number of partitions created.
+CREATE OR REPLACE FUNCTION notifications_ensure_partitions(from_month date, to_month date)
+RETURNS integer AS $$
+DECLARE
+    month_start date := date_trunc('month', from_month);
+    part_name   text;
+    created     integer := 0;
+BEGIN
+    -- Serializes concurrent callers (several instances starting at once)
+    PERFORM pg_advisory_xact_lock(hashtext('notifications_partitions'));
+    WHILE month_start <= to_month LOOP
+        part_name := 'notifications_p' || to_char(month_start, 'YYYYMM');
+        IF to_regclass(part_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF notifications FOR VALUES FROM (%L) TO (%L)',
+                    part_name, month_start, CAST(month_start + interval '1 month' AS date));
+            created := created + 1;
+        END IF;
+        month_start := month_start + interval '1 month';
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detaches and drops every monthly partition that ends on or before `cutoff`.
+-- Unread rows of a dropped partition are subtracted from notification_unread_counters first,
+-- with one aggregate over the partition instead of per-row deletes. Returns the dropped partition names.
+CREATE OR REPLACE FUNCTION notifications_drop_partitions_before(cutoff date)
+RETURNS SETOF text AS $$
+DECLARE
+    part_name text;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('notifications_partitions'));
+    FOR part_name IN
+        SELECT c.relname FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'notifications'::regclass
+          AND c.relname ~ '^notifications_p[0-9]{6}$'
+          AND to_date(substring(c.relname FROM 16), 'YYYYMM') + interval '1 month' <= cutoff
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('UPDATE notification_unread_counters c '
+                || 'SET unread_count = GREATEST(c.unread_count - d.unread, 0), updated_at = now() '
+                || 'FROM (SELECT n.recipient_id, n.type, COUNT(*) AS unread FROM %I n '
+                || 'WHERE n.is_read = false AND NOT EXISTS (SELECT 1 FROM notification_read_state s '
+                || 'WHERE s.user_id = n.recipient_id AND (n.id <= s.read_up_to OR n.id = ANY(s.read_ids))) '
+                || 'GROUP BY n.recipient_id, n.type) d '
+                || 'WHERE c.user_id = d.recipient_id AND c.type = d.type', part_name);
+        EXECUTE format('ALTER TABLE notifications DETACH PARTITION %I', part_name);
+        EXECUTE format('DROP TABLE %I', part_name);
+        RETURN NEXT part_name;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions covering the existing rows plus three months ahead
+SELECT notifications_ensure_partitions(
+        COALESCE((SELECT CAST(MIN(created_at) AS date) FROM notifications_unpartitioned), CURRENT_DATE),
+        CAST(CURRENT_DATE + interval '3 months' AS date));
+
+INSERT INTO notifications (id, recipient_id, type, content, redirect_url, is_read, created_at,
+                           entity_id, actor_count, actor_sample)
+SELECT id, recipient_id, type, content, redirect_url, is_read, created_at,
+       entity_id, actor_count, actor_sample
+FROM notifications_unpartitioned;
+
+DROP TABLE notifications_unpartitioned;
@@ -0,0 +1,19 @@
+-- Indexes for the hot notification queries beyond idx_notifications_recipient_id_id (recipient_id, id DESC),
+-- which already serves the paged and keyset inbox reads sorted by id and their count query.
+-- Declared on the partitioned parent, so each monthly partition gets its own copy.
+-- (CREATE INDEX CONCURRENTLY is not supported on a partitioned parent; on a large existing table,
+-- create the index on each partition concurrently first and attach them instead.)
+
+-- Unread notifications only: typically a small fraction of a recipient's rows. Rows marked read through the
+-- read watermark keep is_read = false until ReadStateCompactionService sets their flag, so with the watermark
+-- enabled the index also holds the rows read since its last run.
+-- Serves the unread counts (countUnreadGroupByType as an index-only scan thanks to INCLUDE (type)),
+-- markAllAsRead and the bulk mark-read statements.
+CREATE INDEX IF NOT EXISTS idx_notifications_recipient_id_unread
+    ON notifications (recipient_id, id DESC) INCLUDE (type)
+    WHERE is_read = false;
+
+-- Roles are loaded eagerly with every user, by user_id; the collection table had no index at all.
+-- Leading role also serves the fan-out query for active users by role.
+CREATE INDEX IF NOT EXISTS idx_user_roles_role_user_id ON user_roles (role, user_id);
+CREATE INDEX IF NOT EXISTS idx_user_roles_user_id ON user_roles (user_id);
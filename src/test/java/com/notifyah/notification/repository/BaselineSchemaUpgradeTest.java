@@ -0,0 +1,83 @@
+package com.notifyah.notification.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations against a database created by {@code ddl-auto: update} from the entities
+ * before migrations were introduced, with existing rows. Skipped where Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class BaselineSchemaUpgradeTest {
+
+    /**
+     * Schema Hibernate generated for the original User and Notification entities.
+     */
+    private static final String[] BASELINE_SCHEMA = {
+            "create table users (id bigint generated by default as identity, created_at timestamp(6) not null, " +
+                    "email varchar(100) not null unique, email_verified boolean not null, full_name varchar(100), " +
+                    "last_login_at timestamp(6), password varchar(255) not null, status varchar(255) not null " +
+                    "check (status in ('ACTIVE','INACTIVE','LOCKED','SUSPENDED','EXPIRED')), updated_at timestamp(6), " +
+                    "username varchar(50) not null unique, primary key (id))",
+            "create table user_roles (user_id bigint not null, role varchar(255) " +
+                    "check (role in ('USER','MODERATOR','ADMIN','SUPER_ADMIN')))",
+            "alter table if exists user_roles add constraint FKhfh9dx7w3ubf1co1vdev94g3f " +
+                    "foreign key (user_id) references users",
+            "create table notifications (id bigint generated by default as identity, content varchar(300) not null, " +
+                    "created_at timestamp(6) not null, is_read boolean not null, recipient_id bigint not null, " +
+                    "redirect_url varchar(500), type varchar(255) not null " +
+                    "check (type in ('NEW_COMMENT','NEW_FOLLOW','POST_LIKED')), primary key (id))"
+    };
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Test
+    void migratesSchemaCreatedByDdlAuto() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            for (String ddl : BASELINE_SCHEMA) {
+                statement.execute(ddl);
+            }
+            statement.execute("INSERT INTO users (username, email, password, status, created_at, email_verified) " +
+                    "VALUES ('alice', 'alice@example.com', 'x', 'ACTIVE', now(), false)");
+            statement.execute("INSERT INTO user_roles (user_id, role) VALUES (1, 'USER')");
+            statement.execute("INSERT INTO notifications (recipient_id, type, content, is_read, created_at) " +
+                    "VALUES (1, 'NEW_COMMENT', 'hello', false, now()), (1, 'POST_LIKED', 'liked', true, now())");
+        }
+
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT COUNT(*), COUNT(entity_id), COUNT(actor_count), " +
+                     "COUNT(actor_sample), bool_and(c.relkind = 'p') FROM notifications n " +
+                     "CROSS JOIN pg_class c WHERE c.oid = CAST('notifications' AS regclass)")) {
+            assertThat(rows.next()).isTrue();
+            assertThat(rows.getLong(1)).isEqualTo(2);
+            assertThat(rows.getLong(2)).isZero();
+            assertThat(rows.getLong(3)).isZero();
+            assertThat(rows.getLong(4)).isZero();
+            assertThat(rows.getBoolean(5)).as("notifications is partitioned").isTrue();
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+}
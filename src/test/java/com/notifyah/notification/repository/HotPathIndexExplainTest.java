@@ -0,0 +1,207 @@
+package com.notifyah.notification.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Applies the Flyway migrations to a real Postgres and checks with EXPLAIN that the hot repository
+ * statements use the indexes of {@code V2__partition_notifications.sql} and {@code V3__hot_path_indexes.sql}.
+ * The statements are the repository's own SQL constants, with their parameters bound to literals.
+ * Skipped where Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class HotPathIndexExplainTest {
+
+    private static final int USERS = 2000;
+    private static final int NOTIFICATIONS_PER_USER = 100;
+    /**
+     * Recipient of notification IDs 42, 2042, 4042, ... (IDs are assigned round-robin over the users).
+     */
+    private static final long USER_ID = 43;
+    private static final String USER_IDS = "42,2042,4042";
+
+    private static final Pattern INDEX_SCAN = Pattern.compile(
+            "(?:Index (?:Only )?Scan(?: Backward)? using|Bitmap Index Scan on) (\\S+)");
+    private static final Pattern PARAMETER = Pattern.compile(":(\\w+)");
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @BeforeAll
+    static void migrateAndLoad() throws SQLException {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (id, username, email, password, status, created_at) " +
+                    "SELECT u, 'user' || u, 'user' || u || '@example.com', 'x', 'ACTIVE', now() " +
+                    "FROM generate_series(1, " + USERS + ") u");
+            statement.execute("INSERT INTO user_roles (user_id, role) " +
+                    "SELECT u, CASE WHEN u % 200 = 0 THEN 'ADMIN' ELSE 'USER' END FROM generate_series(1, " + USERS + ") u");
+            // About 5% unread, as in a typical inbox once read watermarks are folded
+            statement.execute("INSERT INTO notifications (id, recipient_id, type, content, is_read, created_at) " +
+                    "SELECT g, g % " + USERS + " + 1, CASE WHEN g % 3 = 0 THEN 'NEW_COMMENT' ELSE 'POST_LIKED' END, " +
+                    "'content', g % 20 <> 0, now() " +
+                    "FROM generate_series(1, " + USERS * NOTIFICATIONS_PER_USER + ") g");
+            // Every other user has a watermark over the first half of their notifications, plus a few exceptions
+            statement.execute("INSERT INTO notification_read_state (user_id, read_up_to, read_ids, updated_at) " +
+                    "SELECT u, " + USERS * NOTIFICATIONS_PER_USER / 2 + ", " +
+                    "ARRAY[CAST(" + USERS * NOTIFICATIONS_PER_USER / 2 + " + u AS bigint)], now() " +
+                    "FROM generate_series(1, " + USERS + ") u WHERE u % 2 = 1");
+            statement.execute("VACUUM ANALYZE");
+        }
+    }
+
+    @Test
+    void unreadCountByTypeUsesPartialUnreadIndex() throws SQLException {
+        String plan = explain(NotificationRepository.COUNT_UNREAD_GROUP_BY_TYPE, Map.of("recipientId", USER_ID));
+
+        assertThat(indexesUsed(plan)).containsAnyElementsOf(partitionIndexesOf("idx_notifications_recipient_id_unread"));
+    }
+
+    @Test
+    void markAllAsReadUsesPartialUnreadIndex() throws SQLException {
+        String plan = explain(NotificationRepository.MARK_ALL_AS_READ, Map.of("userId", USER_ID));
+
+        assertThat(indexesUsed(plan)).containsAnyElementsOf(partitionIndexesOf("idx_notifications_recipient_id_unread"));
+    }
+
+    @Test
+    void existsByIdAndRecipientIdUsesIndex() throws SQLException {
+        String plan = explain(NotificationRepository.EXISTS_BY_ID_AND_RECIPIENT_ID,
+                Map.of("id", 2042L, "recipientId", USER_ID));
+
+        assertThat(indexesUsed(plan)).containsAnyElementsOf(notificationIndexes());
+    }
+
+    @Test
+    void markReadByIdsUsesIndex() throws SQLException {
+        String plan = explain(NotificationRepository.MARK_READ_BY_IDS, Map.of("recipientId", USER_ID, "ids", USER_IDS));
+
+        assertThat(indexesUsed(plan)).containsAnyElementsOf(notificationIndexes());
+    }
+
+    @Test
+    void deleteByIdsUsesIndex() throws SQLException {
+        String plan = explain(NotificationRepository.DELETE_BY_IDS, Map.of("recipientId", USER_ID, "ids", USER_IDS));
+
+        assertThat(indexesUsed(plan)).containsAnyElementsOf(notificationIndexes());
+    }
+
+    @Test
+    void addReadIdsUsesIndex() throws SQLException {
+        String plan = explain(NotificationReadStateRepository.ADD_READ_IDS,
+                Map.of("userId", USER_ID, "ids", USER_IDS, "maxReadIds", 256));
+
+        assertThat(indexesUsed(plan)).containsAnyElementsOf(notificationIndexes());
+    }
+
+    @Test
+    void inboxPageUsesRecipientIdIndex() throws SQLException {
+        String plan = explain("SELECT * FROM notifications WHERE recipient_id = :recipientId ORDER BY id DESC LIMIT 20",
+                Map.of("recipientId", USER_ID));
+
+        assertThat(indexesUsed(plan)).containsAnyElementsOf(partitionIndexesOf("idx_notifications_recipient_id_id"));
+    }
+
+    @Test
+    void rolesOfUserUseUserIdIndex() throws SQLException {
+        String plan = explain("SELECT role FROM user_roles WHERE user_id = 42", Map.of());
+
+        assertThat(indexesUsed(plan)).contains("idx_user_roles_user_id");
+    }
+
+    @Test
+    void usersByRoleUseRoleIndex() throws SQLException {
+        String plan = explain("SELECT user_id FROM user_roles WHERE role = 'ADMIN'", Map.of());
+
+        assertThat(indexesUsed(plan)).contains("idx_user_roles_role_user_id");
+    }
+
+    /**
+     * @return names of the indexes scanned by a text plan
+     */
+    private static List<String> indexesUsed(String plan) {
+        List<String> names = new ArrayList<>();
+        Matcher matcher = INDEX_SCAN.matcher(plan);
+        while (matcher.find()) {
+            names.add(matcher.group(1));
+        }
+        return names;
+    }
+
+    /**
+     * Plans a statement without running it; named parameters are replaced by literals.
+     */
+    private static String explain(String sql, Map<String, Object> parameters) throws SQLException {
+        Matcher matcher = PARAMETER.matcher(sql);
+        StringBuilder bound = new StringBuilder();
+        while (matcher.find()) {
+            Object value = parameters.get(matcher.group(1));
+            assertThat(value).as("value of :%s", matcher.group(1)).isNotNull();
+            String literal = value instanceof String text ? "'" + text + "'" : String.valueOf(value);
+            matcher.appendReplacement(bound, Matcher.quoteReplacement(literal));
+        }
+        matcher.appendTail(bound);
+
+        StringBuilder plan = new StringBuilder();
+        try (Connection connection = connect(); Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("EXPLAIN " + bound)) {
+            while (rows.next()) {
+                plan.append(rows.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    /**
+     * @return per-partition copies of every index of the notifications table
+     */
+    private static List<String> notificationIndexes() throws SQLException {
+        List<String> names = new ArrayList<>(partitionIndexesOf("notifications_pkey"));
+        names.addAll(partitionIndexesOf("idx_notifications_recipient_id_id"));
+        names.addAll(partitionIndexesOf("idx_notifications_recipient_id_unread"));
+        return names;
+    }
+
+    /**
+     * @return names of the per-partition copies of an index declared on the partitioned parent
+     */
+    private static List<String> partitionIndexesOf(String parentIndex) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (Connection connection = connect(); Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT c.relname FROM pg_inherits i " +
+                     "JOIN pg_class c ON c.oid = i.inhrelid " +
+                     "WHERE i.inhparent = CAST('" + parentIndex + "' AS regclass)")) {
+            while (rows.next()) {
+                names.add(rows.getString(1));
+            }
+        }
+        assertThat(names).as("partitions of %s", parentIndex).isNotEmpty();
+        return names;
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+}
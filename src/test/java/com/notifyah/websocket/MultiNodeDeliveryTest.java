@@ -0,0 +1,206 @@
+package com.notifyah.websocket;
+
+import com.notifyah.websocket.cluster.ClusterPresenceSync;
+import com.notifyah.websocket.cluster.InMemorySessionLocationRegistry;
+import com.notifyah.websocket.cluster.InProcessDeliveryBackplane;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Several simulated nodes in one JVM, sharing an {@link InMemorySessionLocationRegistry}
+ * and an {@link InProcessDeliveryBackplane}.
+ */
+class MultiNodeDeliveryTest {
+
+    private static final long USER_ID = 42L;
+
+    private final InMemorySessionLocationRegistry locationRegistry = new InMemorySessionLocationRegistry();
+    private final InProcessDeliveryBackplane backplane = new InProcessDeliveryBackplane();
+    /**
+     * Nodes that received a frame over the backplane, in order.
+     */
+    private final List<String> backplaneDeliveries = new CopyOnWriteArrayList<>();
+    private final List<Node> nodes = new ArrayList<>();
+
+    private Node nodeA;
+    private Node nodeB;
+    private Node nodeC;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new Node("node-a");
+        nodeB = new Node("node-b");
+        nodeC = new Node("node-c");
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(node -> node.writerPool.stop());
+    }
+
+    @Test
+    void pushForUserOnOtherNodeReachesOnlyThatNode() throws Exception {
+        WebSocketSession sessionOnB = nodeB.connect(USER_ID);
+        WebSocketSession otherUserOnA = nodeA.connect(7L);
+        WebSocketSession otherUserOnC = nodeC.connect(8L);
+        syncAll();
+
+        TextMessage frame = new TextMessage("{\"id\":1}");
+        nodeA.dispatcher.dispatch(USER_ID, frame);
+
+        verify(sessionOnB, timeout(1000)).sendMessage(frame);
+        assertThat(backplaneDeliveries).containsExactly("node-b");
+        verify(otherUserOnA, after(100).never()).sendMessage(any());
+        verify(otherUserOnC, never()).sendMessage(any());
+    }
+
+    @Test
+    void pushOnHoldingNodeIsDeliveredLocallyWithoutBackplane() throws Exception {
+        WebSocketSession sessionOnB = nodeB.connect(USER_ID);
+        syncAll();
+
+        TextMessage frame = new TextMessage("{\"id\":2}");
+        nodeB.dispatcher.dispatch(USER_ID, frame);
+
+        verify(sessionOnB, timeout(1000)).sendMessage(frame);
+        assertThat(backplaneDeliveries).isEmpty();
+    }
+
+    @Test
+    void disconnectRacingWithReconnectKeepsUserRegistered() throws Exception {
+        WebSocketSession first = nodeB.connect(USER_ID);
+        syncAll();
+
+        // Disconnect and reconnect within one presence sync interval
+        nodeB.disconnect(first);
+        WebSocketSession second = nodeB.connect(USER_ID);
+        syncAll();
+
+        assertThat(locationRegistry.locate(List.of(USER_ID))).containsEntry(USER_ID, Set.of("node-b"));
+
+        TextMessage frame = new TextMessage("{\"id\":3}");
+        nodeA.dispatcher.dispatch(USER_ID, frame);
+
+        verify(second, timeout(1000)).sendMessage(frame);
+        verify(first, never()).sendMessage(any());
+        assertThat(backplaneDeliveries).containsExactly("node-b");
+    }
+
+    @Test
+    void reconnectToAnotherNodeMovesPresenceRegardlessOfSyncOrder() throws Exception {
+        WebSocketSession onB = nodeB.connect(USER_ID);
+        syncAll();
+
+        WebSocketSession onC = nodeC.connect(USER_ID);
+        nodeB.disconnect(onB);
+        // The new node syncs before the old one notices the disconnect
+        nodeC.presenceSync.syncChangedUsers();
+        assertThat(locationRegistry.locate(List.of(USER_ID))).containsEntry(USER_ID, Set.of("node-b", "node-c"));
+        nodeB.presenceSync.syncChangedUsers();
+
+        assertThat(locationRegistry.locate(List.of(USER_ID))).containsEntry(USER_ID, Set.of("node-c"));
+
+        TextMessage frame = new TextMessage("{\"id\":4}");
+        nodeA.dispatcher.dispatch(USER_ID, frame);
+
+        verify(onC, timeout(1000)).sendMessage(frame);
+        verify(onB, never()).sendMessage(any());
+        assertThat(backplaneDeliveries).containsExactly("node-c");
+    }
+
+    @Test
+    void disconnectWithoutReconnectRemovesPresence() throws Exception {
+        WebSocketSession session = nodeB.connect(USER_ID);
+        syncAll();
+
+        nodeB.disconnect(session);
+        syncAll();
+
+        assertThat(locationRegistry.locate(List.of(USER_ID))).isEmpty();
+
+        nodeA.dispatcher.dispatch(USER_ID, new TextMessage("{\"id\":5}"));
+
+        assertThat(backplaneDeliveries).isEmpty();
+        verify(session, never()).sendMessage(any());
+    }
+
+    private void syncAll() {
+        nodes.forEach(node -> node.presenceSync.syncChangedUsers());
+    }
+
+    /**
+     * One simulated node: its own session registry, writer pool, handler, dispatcher and presence sync.
+     */
+    private final class Node {
+        private final String nodeId;
+        private final SessionWriterPool writerPool = new SessionWriterPool();
+        private final NotificationWebSocketHandler handler;
+        private final NotificationDispatcher dispatcher;
+        private final ClusterPresenceSync presenceSync;
+        private int sessionSequence;
+
+        private Node(String nodeId) {
+            this.nodeId = nodeId;
+            ReflectionTestUtils.setField(writerPool, "queueCapacity", 16);
+            ReflectionTestUtils.setField(writerPool, "overflowPolicy", OverflowPolicy.DROP_OLDEST);
+            ReflectionTestUtils.setField(writerPool, "writerThreads", 1);
+            ReflectionTestUtils.setField(writerPool, "drainBatchSize", 16);
+            ReflectionTestUtils.setField(writerPool, "sendTimeLimitMillis", 5000L);
+            writerPool.start();
+
+            WebSocketSessionRegistry sessionRegistry = new WebSocketSessionRegistry();
+            handler = new NotificationWebSocketHandler(null, null, sessionRegistry, writerPool, null);
+
+            dispatcher = new NotificationDispatcher(handler, locationRegistry, backplane);
+            ReflectionTestUtils.setField(dispatcher, "nodeId", nodeId);
+            ReflectionTestUtils.setField(dispatcher, "backplane", "in-process");
+
+            presenceSync = new ClusterPresenceSync(sessionRegistry, locationRegistry);
+            ReflectionTestUtils.setField(presenceSync, "nodeId", nodeId);
+            ReflectionTestUtils.setField(presenceSync, "backplane", "in-process");
+
+            backplane.attach(nodeId, (userId, frame) -> {
+                backplaneDeliveries.add(nodeId);
+                handler.sendToUser(userId, frame);
+            });
+            nodes.add(this);
+        }
+
+        private WebSocketSession connect(Long userId) {
+            Map<String, Object> attributes = new HashMap<>();
+            attributes.put("userId", userId);
+            WebSocketSession session = mock(WebSocketSession.class);
+            when(session.getId()).thenReturn(nodeId + "-" + (++sessionSequence));
+            when(session.getAttributes()).thenReturn(attributes);
+            when(session.isOpen()).thenReturn(true);
+            handler.afterConnectionEstablished(session);
+            return session;
+        }
+
+        private void disconnect(WebSocketSession session) {
+            when(session.isOpen()).thenReturn(false);
+            handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+        }
+    }
+}